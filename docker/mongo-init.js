@@ -16,15 +16,38 @@ db = db.getSiblingDB('springboot_db');
 //   ]
 // });
 
-// Criar índices para melhor performance
+// Pré-imagens no change stream: estado anterior de updates e deletes para a sincronização dos caches
+['products', 'users'].forEach(function (name) {
+  if (db.getCollectionNames().indexOf(name) < 0) {
+    db.createCollection(name, { changeStreamPreAndPostImages: { enabled: true } });
+  } else {
+    db.runCommand({ collMod: name, changeStreamPreAndPostImages: { enabled: true } });
+  }
+});
+
+// Criar índices para melhor performance (mesmos nomes dos declarados em Product e User)
 db.users.createIndex({ "email": 1 }, { unique: true });
-db.users.createIndex({ "active": 1 });
-db.users.createIndex({ "name": "text" });
+db.users.createIndex({ "nameGrams": 1 });
+db.users.createIndex({ "active": 1, "name": 1, "_id": 1 },
+  { name: "active_name_id", partialFilterExpression: { "active": true } });
+db.users.createIndex({ "active": 1, "createdDate": 1, "_id": 1 },
+  { name: "active_createdDate_id", partialFilterExpression: { "active": true } });
+db.users.createIndex({ "lastModifiedDate": 1 });
 
-db.products.createIndex({ "name": "text" });
+db.products.createIndex({ "nameGrams": 1 });
+db.products.createIndex({ "available": 1, "name": 1, "_id": 1 },
+  { name: "available_name_id", partialFilterExpression: { "available": true } });
+db.products.createIndex({ "available": 1, "createdDate": 1, "_id": 1 },
+  { name: "available_createdDate_id", partialFilterExpression: { "available": true } });
+db.products.createIndex({ "category": 1, "available": 1, "name": 1 },
+  { name: "category_available_name", partialFilterExpression: { "available": true } });
+db.products.createIndex({ "available": 1, "stock": 1 },
+  { name: "available_stock", partialFilterExpression: { "available": true } });
 db.products.createIndex({ "category": 1 });
-db.products.createIndex({ "available": 1 });
-db.products.createIndex({ "price": 1 });
+db.products.createIndex({ "tags": 1 }, { name: "tags" });
+db.products.createIndex({ "available": 1, "priceCents": 1, "_id": 1 },
+  { name: "available_priceCents_id", partialFilterExpression: { "available": true } });
+db.products.createIndex({ "lastModifiedDate": 1 });
 
 // Inserir dados de exemplo (opcional)
 db.users.insertMany([
@@ -0,0 +1,59 @@
+package com.example.app.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operações em lote sobre um cache, com ou sem o L1 local na frente do Redis
+ *
+ * Para caches Redis a leitura é um único MGET e a escrita um único pipeline;
+ * outros tipos de cache caem no acesso chave a chave.
+ */
+@Component
+public class CacheBatchOperations {
+
+    private final StringRedisTemplate redisTemplate;
+
+    public CacheBatchOperations(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Valores em cache para as chaves informadas (ausentes não aparecem no mapa)
+     */
+    public Map<String, Object> getAll(Cache cache, List<String> keys) {
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            return twoLevelCache.getAll(keys);
+        }
+        if (cache instanceof RedisCache redisCache) {
+            return RedisCacheBatch.getAll(redisCache, redisTemplate, keys);
+        }
+        Map<String, Object> values = new HashMap<>();
+        for (String key : keys) {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            if (wrapper != null && wrapper.get() != null) {
+                values.put(key, wrapper.get());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Gravar várias entradas no cache
+     */
+    public void putAll(Cache cache, Map<String, ?> entries) {
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.putAll(entries);
+        } else if (cache instanceof RedisCache redisCache) {
+            RedisCacheBatch.putAll(redisCache, redisTemplate, entries);
+        } else {
+            entries.forEach(cache::put);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.app.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Contadores de geração (Redis INCR) incorporados às chaves dos caches de listas e contagens
+ *
+ * Em vez de remover entradas, uma escrita incrementa apenas as gerações afetadas
+ * (global, da categoria, das tags); as leituras seguintes passam a usar chaves
+ * novas e as entradas antigas expiram pelo TTL. As gerações lidas ficam em
+ * memória por alguns segundos e são descartadas quando outra instância publica
+ * um incremento no canal de gerações.
+ *
+ * Usado nas expressões SpEL das chaves como {@code @cacheGenerations}; o caminho
+ * reativo usa as variantes {@code reactive*}, que leem a geração sem bloquear.
+ */
+public class CacheGenerations {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheGenerations.class);
+
+    private static final String PREFIX = "gen:";
+    private static final String PRODUCT_GLOBAL = PREFIX + "product:global";
+    private static final String PRODUCT_CATEGORY = PREFIX + "product:category:";
+    private static final String PRODUCT_TAG = PREFIX + "product:tag:";
+    private static final String USER_GLOBAL = PREFIX + "user:global";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final String channel;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Long> localGenerations;
+
+    public CacheGenerations(StringRedisTemplate redisTemplate, ReactiveStringRedisTemplate reactiveRedisTemplate,
+                            String channel, Duration localTtl) {
+        this.redisTemplate = redisTemplate;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.channel = channel;
+        this.localGenerations = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(localTtl)
+                .build();
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Chave para caches derivados de todos os produtos (ex.: availableProductSummaries)
+     */
+    public String productKey() {
+        return "g" + generation(PRODUCT_GLOBAL);
+    }
+
+    /**
+     * Chave para caches por categoria
+     */
+    public String productCategoryKey(String category) {
+        return category + ":g" + generation(PRODUCT_CATEGORY + category);
+    }
+
+    /**
+     * Chave para caches por tag
+     */
+    public String productTagKey(String tag) {
+        return tag + ":g" + generation(PRODUCT_TAG + tag);
+    }
+
+    /**
+     * Chave para caches derivados de todos os usuários (ex.: activeUserSummaries)
+     */
+    public String userKey() {
+        return "g" + generation(USER_GLOBAL);
+    }
+
+    /**
+     * Variante reativa de {@link #productKey()}
+     */
+    public Mono<String> reactiveProductKey() {
+        return reactiveGeneration(PRODUCT_GLOBAL).map(generation -> "g" + generation);
+    }
+
+    /**
+     * Variante reativa de {@link #productCategoryKey(String)}
+     */
+    public Mono<String> reactiveProductCategoryKey(String category) {
+        return reactiveGeneration(PRODUCT_CATEGORY + category).map(generation -> category + ":g" + generation);
+    }
+
+    /**
+     * Variante reativa de {@link #userKey()}
+     */
+    public Mono<String> reactiveUserKey() {
+        return reactiveGeneration(USER_GLOBAL).map(generation -> "g" + generation);
+    }
+
+    /**
+     * Incrementar as gerações afetadas pela escrita de produtos nas categorias e tags informadas
+     */
+    public void bumpProducts(Collection<String> categories, Collection<String> tags) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(PRODUCT_GLOBAL);
+        categories.stream().filter(c -> c != null).forEach(c -> keys.add(PRODUCT_CATEGORY + c));
+        tags.stream().filter(t -> t != null).forEach(t -> keys.add(PRODUCT_TAG + t));
+        bump(keys);
+    }
+
+    /**
+     * Incrementar apenas as gerações das tags (escritas que só mudam campos
+     * presentes nas listas completas por tag, como o estoque)
+     */
+    public void bumpProductTags(Collection<String> tags) {
+        Set<String> keys = new LinkedHashSet<>();
+        tags.stream().filter(t -> t != null).forEach(t -> keys.add(PRODUCT_TAG + t));
+        if (!keys.isEmpty()) {
+            bump(keys);
+        }
+    }
+
+    /**
+     * Incrementar a geração dos caches de usuários
+     */
+    public void bumpUsers() {
+        bump(Set.of(USER_GLOBAL));
+    }
+
+    /**
+     * Descartar gerações em memória (incremento publicado por outra instância)
+     */
+    public void onBump(String payload) {
+        logger.debug("Gerações incrementadas em outra instância: {}", payload);
+        localGenerations.invalidateAll(payload.lines().toList());
+    }
+
+    private long generation(String key) {
+        Long cached = localGenerations.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            String value = redisTemplate.opsForValue().get(key);
+            long generation = value != null ? Long.parseLong(value) : 0L;
+            localGenerations.put(key, generation);
+            return generation;
+        } catch (Exception e) {
+            logger.warn("Erro ao ler geração {}: {}", key, e.getMessage());
+            return 0L;
+        }
+    }
+
+    private Mono<Long> reactiveGeneration(String key) {
+        Long cached = localGenerations.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return reactiveRedisTemplate.opsForValue().get(key)
+                .map(Long::parseLong)
+                .defaultIfEmpty(0L)
+                .doOnNext(generation -> localGenerations.put(key, generation))
+                .onErrorResume(e -> {
+                    logger.warn("Erro ao ler geração {}: {}", key, e.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+
+    /**
+     * INCR das gerações e publicação da invalidação em um único pipeline
+     */
+    private void bump(Set<String> keys) {
+        byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = String.join("\n", keys).getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                incrementAll(connection, keys);
+                connection.publish(channelBytes, payload);
+                return null;
+            });
+            localGenerations.invalidateAll(keys);
+            logger.debug("Gerações incrementadas: {}", keys);
+        } catch (Exception e) {
+            logger.warn("Erro ao incrementar gerações {}: {}", keys, e.getMessage());
+        }
+    }
+
+    private static void incrementAll(RedisConnection connection, Set<String> keys) {
+        for (String key : keys) {
+            connection.stringCommands().incr(key.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.app.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Recebe invalidações publicadas por outras instâncias e descarta o L1 correspondente
+ */
+public class CacheInvalidationListener implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    private final TwoLevelCacheManager cacheManager;
+    private final CacheInvalidationPublisher publisher;
+
+    public CacheInvalidationListener(TwoLevelCacheManager cacheManager, CacheInvalidationPublisher publisher) {
+        this.cacheManager = cacheManager;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            cacheManager.onInvalidation(publisher.read(payload));
+        } catch (Exception e) {
+            logger.warn("Mensagem de invalidação inválida: {} - {}", payload, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.app.cache;
+
+/**
+ * Mensagem publicada no Redis pub/sub para invalidar o cache local (L1)
+ * das demais instâncias
+ *
+ * @param origin    identificador da instância que publicou a mensagem
+ * @param cacheName nome do cache afetado
+ * @param key       chave afetada ou {@code null} quando o cache inteiro foi limpo
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, String key) {
+
+    public boolean isClear() {
+        return key == null;
+    }
+}
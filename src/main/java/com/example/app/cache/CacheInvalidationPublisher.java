@@ -0,0 +1,92 @@
+package com.example.app.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Publica invalidações do cache local para as demais instâncias via Redis pub/sub
+ *
+ * Falhas de publicação são apenas registradas: o TTL curto do L1 limita
+ * o tempo em que uma instância pode servir um valor desatualizado.
+ */
+public class CacheInvalidationPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationPublisher.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Publicar invalidação de uma chave
+     */
+    public void publishEvict(String cacheName, String key) {
+        publish(new CacheInvalidationMessage(instanceId, cacheName, key));
+    }
+
+    /**
+     * Publicar invalidação de várias chaves em um único pipeline
+     */
+    public void publishEvictAll(String cacheName, Collection<String> keys) {
+        try {
+            List<byte[]> payloads = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                payloads.add(objectMapper.writeValueAsBytes(new CacheInvalidationMessage(instanceId, cacheName, key)));
+            }
+            byte[] rawChannel = channel.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                payloads.forEach(payload -> connection.publish(rawChannel, payload));
+                return null;
+            });
+        } catch (Exception e) {
+            logger.warn("Erro ao publicar invalidação do cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * Publicar limpeza completa de um cache
+     */
+    public void publishClear(String cacheName) {
+        publish(new CacheInvalidationMessage(instanceId, cacheName, null));
+    }
+
+    /**
+     * Converter mensagem recebida do canal
+     */
+    public CacheInvalidationMessage read(String payload) throws JsonProcessingException {
+        return objectMapper.readValue(payload, CacheInvalidationMessage.class);
+    }
+
+    private void publish(CacheInvalidationMessage message) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            logger.warn("Erro ao publicar invalidação do cache {}: {}", message.cacheName(), e.getMessage());
+        }
+    }
+}
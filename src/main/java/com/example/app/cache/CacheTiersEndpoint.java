@@ -0,0 +1,65 @@
+package com.example.app.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Endpoint actuator com taxas de acerto por nível (L1 local / L2 Redis) de cada cache
+ */
+@Component
+@Endpoint(id = "cachetiers")
+public class CacheTiersEndpoint {
+
+    private final CacheManager cacheManager;
+
+    public CacheTiersEndpoint(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Map<String, Object> tiers() {
+        Map<String, Object> result = new TreeMap<>();
+        if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            twoLevelCacheManager.getTwoLevelCaches()
+                    .forEach((name, cache) -> result.put(name, describe(cache.getStats())));
+        }
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> tier(@Selector String cacheName) {
+        if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            TwoLevelCache cache = twoLevelCacheManager.getTwoLevelCaches().get(cacheName);
+            if (cache != null) {
+                return describe(cache.getStats());
+            }
+        }
+        return null;
+    }
+
+    private Map<String, Object> describe(TwoLevelCache.TierStats stats) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("requests", stats.requests());
+        description.put("l1Hits", stats.localHits());
+        description.put("l2Hits", stats.remoteHits());
+        description.put("misses", stats.misses());
+        description.put("l1HitRate", stats.localHitRate());
+        description.put("l2HitRate", stats.remoteHitRate());
+        description.put("hitRate", stats.hitRate());
+        description.put("puts", stats.puts());
+        description.put("evictions", stats.evictions());
+        description.put("loads", stats.loads());
+        description.put("sharedLoads", stats.sharedLoads());
+        description.put("refreshes", stats.refreshes());
+        description.put("l1Size", stats.localSize());
+        description.put("l1Evictions", stats.localEvictions());
+        return description;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.app.cache;
+
+import com.example.app.config.AppConfig.AppProperties;
+import com.example.app.dto.ProductSummary;
+import com.example.app.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Aquecimento dos caches mais acessados na inicialização
+ *
+ * Executa como ApplicationRunner, antes do evento que marca a aplicação como
+ * pronta: o probe de readiness só fica UP depois que o aquecimento termina
+ * (ou atinge app.cache.warmup.timeout). As cargas passam pelos serviços, então
+ * populam os mesmos caches (L1 e Redis) usados pelas requisições.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cache.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CacheWarmup implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmup.class);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AppProperties.Cache.Warmup properties = appProperties.getCache().getWarmup();
+        AtomicInteger tasks = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        logger.info("Iniciando aquecimento do cache");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            List<CompletableFuture<?>> pending = new ArrayList<>();
+
+            // Lista de disponíveis primeiro: dela saem as categorias a aquecer
+            CompletableFuture<List<ProductSummary>> available = submit(executor, tasks, failures,
+                    productService::findAvailableProductSummaries);
+            pending.add(available.thenCompose(products -> CompletableFuture.allOf(
+                    categoriesOf(products).stream()
+                            .flatMap(category -> List.<CompletableFuture<?>>of(
+                                    submit(executor, tasks, failures, () -> productService.findSummariesByCategory(category)),
+                                    submit(executor, tasks, failures, () -> productService.countByCategory(category)))
+                                    .stream())
+                            .toArray(CompletableFuture[]::new))));
+            pending.add(submit(executor, tasks, failures, productService::countAvailableProducts));
+            pending.add(submit(executor, tasks, failures, productService::getCatalogFacets));
+
+            for (String id : hotProductIds(properties.getHotProducts())) {
+                pending.add(submit(executor, tasks, failures, () -> productService.findById(id)));
+            }
+
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                    .get(properties.getTimeout(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            logger.warn("Aquecimento do cache excedeu {} s; seguindo com o que já foi carregado",
+                    properties.getTimeout());
+        } catch (InterruptedException e) {
+            outcome = "interrupted";
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            outcome = "failure";
+            logger.warn("Erro no aquecimento do cache: {}", e.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        sample.stop(Timer.builder("cache.warmup")
+                .description("Duração do aquecimento do cache na inicialização")
+                .tag("result", outcome)
+                .register(meterRegistry));
+        logger.info("Aquecimento do cache concluído em {} ms ({} tarefas, {} falhas, resultado: {})",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), tasks.get(), failures.get(), outcome);
+    }
+
+    /**
+     * Agendar uma carga; falhas são apenas contadas para não interromper o aquecimento
+     */
+    private <T> CompletableFuture<T> submit(ExecutorService executor, AtomicInteger tasks, AtomicInteger failures,
+                                            Supplier<T> load) {
+        tasks.incrementAndGet();
+        return CompletableFuture.supplyAsync(load, executor)
+                .exceptionally(e -> {
+                    failures.incrementAndGet();
+                    logger.debug("Falha em tarefa de aquecimento do cache: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    private List<String> categoriesOf(List<ProductSummary> products) {
+        if (products == null) {
+            return List.of();
+        }
+        return products.stream()
+                .map(ProductSummary::getCategory)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    private List<String> hotProductIds(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        try {
+            return hotKeyTracker.top(limit);
+        } catch (Exception e) {
+            logger.warn("Erro ao ler produtos mais acessados: {}", e.getMessage());
+            return List.of();
+        }
+    }
+}
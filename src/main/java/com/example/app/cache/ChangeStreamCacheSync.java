@@ -0,0 +1,359 @@
+package com.example.app.cache;
+
+import com.example.app.config.AppConfig.AppProperties;
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sincronização dos caches com as escritas feitas fora da aplicação (change streams)
+ *
+ * Uma instância por vez, a que detém o lease no Redis, acompanha o change stream
+ * das coleções products e users. Para cada alteração ela:
+ * - atualiza a entrada do documento se ela estiver em cache, ou a remove na exclusão;
+ * - incrementa as gerações das listas afetadas (categorias e tags de antes e de depois);
+ * - adiciona os IDs inseridos aos filtros de existência.
+ * Eventos cujo documento já está em cache exatamente como gravado (escritas da
+ * própria aplicação) são ignorados. O estado anterior vem da pré-imagem, quando a
+ * coleção a tem habilitada, ou da entrada em cache.
+ *
+ * O resume token fica no Redis: após reinício ou troca de líder o stream continua
+ * de onde parou. Se o oplog já não cobre o token, todos os caches são limpos.
+ * Change streams exigem replica set; sem ele a sincronização é desativada.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cache.change-streams", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeStreamCacheSync implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeStreamCacheSync.class);
+
+    private static final String PRODUCTS = "products";
+    private static final String USERS = "users";
+
+    // Códigos de erro do servidor
+    private static final int NOT_A_REPLICA_SET = 40573;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheGenerations cacheGenerations;
+
+    @Autowired
+    private ExistenceFilters existenceFilters;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("cache-change-stream").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        AppProperties.Cache.ChangeStreams properties = appProperties.getCache().getChangeStreams();
+        RedisLease lease = new RedisLease(redisTemplate);
+        Duration leaseTtl = Duration.ofSeconds(properties.getLeaseTtl());
+
+        while (running) {
+            String token = null;
+            try {
+                token = lease.tryAcquire(properties.getLeaderKey(), leaseTtl);
+                if (token != null) {
+                    logger.info("Instância assumiu o change stream de {} e {}", PRODUCTS, USERS);
+                    watch(properties, lease, token, leaseTtl);
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == NOT_A_REPLICA_SET) {
+                    logger.warn("Change streams exigem replica set; sincronização dos caches com escritas externas desativada");
+                    running = false;
+                } else if (running) {
+                    logger.warn("Erro no change stream: {}", e.getMessage());
+                }
+            } catch (Exception e) {
+                if (running) {
+                    logger.warn("Erro no change stream: {}", e.getMessage());
+                }
+            } finally {
+                release(lease, properties.getLeaderKey(), token);
+            }
+            sleep(properties.getRetryInterval());
+        }
+    }
+
+    /**
+     * Acompanhar o stream enquanto esta instância detiver o lease
+     */
+    private void watch(AppProperties.Cache.ChangeStreams properties, RedisLease lease, String leaseToken,
+                       Duration leaseTtl) {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", PRODUCTS, USERS))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                .maxAwaitTime(properties.getMaxAwait(), TimeUnit.MILLISECONDS);
+        BsonDocument resumeToken = loadResumeToken(properties.getResumeTokenKey());
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        long renewEvery = Math.max(1, leaseTtl.toMillis() / 3);
+        long renewAt = System.currentTimeMillis() + renewEvery;
+        int unsaved = 0;
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            while (running) {
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                if (event != null) {
+                    if (event.getOperationType() == OperationType.INVALIDATE) {
+                        // Coleção removida ou renomeada: o stream termina e recomeça do instante atual
+                        clearAll();
+                        redisTemplate.delete(properties.getResumeTokenKey());
+                        return;
+                    }
+                    apply(event);
+                    unsaved++;
+                }
+                if ((event == null && unsaved > 0) || unsaved >= properties.getTokenSaveEvents()) {
+                    saveResumeToken(properties.getResumeTokenKey(), cursor.getResumeToken());
+                    unsaved = 0;
+                }
+                if (System.currentTimeMillis() >= renewAt) {
+                    // Mesmo sem eventos o token avança, e não envelhece além da janela do oplog
+                    saveResumeToken(properties.getResumeTokenKey(), cursor.getResumeToken());
+                    if (!lease.renew(properties.getLeaderKey(), leaseToken, leaseTtl)) {
+                        logger.info("Lease do change stream perdido; outra instância assume");
+                        return;
+                    }
+                    renewAt = System.currentTimeMillis() + renewEvery;
+                }
+            }
+        } catch (MongoCommandException e) {
+            if (e.getErrorCode() != CHANGE_STREAM_HISTORY_LOST) {
+                throw e;
+            }
+            logger.warn("Resume token do change stream não está mais no oplog; caches limpos e stream reiniciado");
+            redisTemplate.delete(properties.getResumeTokenKey());
+            clearAll();
+        }
+    }
+
+    private void apply(ChangeStreamDocument<Document> event) {
+        String collection = event.getNamespace() != null ? event.getNamespace().getCollectionName() : null;
+        String id = idOf(event.getDocumentKey());
+        OperationType operation = event.getOperationType();
+        if (id == null) {
+            // drop, rename e demais eventos sem documento
+            clearAll();
+            return;
+        }
+
+        boolean applied = switch (collection) {
+            case PRODUCTS -> applyProduct(id, operation, event);
+            case USERS -> applyUser(id, operation, event);
+            default -> false;
+        };
+        meterRegistry.counter("cache.change.events", "collection", collection,
+                "operation", operation.getValue(), "result", applied ? "applied" : "skipped").increment();
+        logger.debug("Change stream {} {} em {}: {}", operation.getValue(), id, collection,
+                applied ? "aplicado" : "ignorado");
+    }
+
+    private boolean applyProduct(String id, OperationType operation, ChangeStreamDocument<Document> event) {
+        Cache cache = cacheManager.getCache(PRODUCTS);
+        Product cached = cached(cache, id, Product.class);
+        Document after = event.getFullDocument();
+        Product current = after != null ? mongoTemplate.getConverter().read(Product.class, after) : null;
+
+        if (current == null) {
+            if (cache != null) {
+                cache.evict(id);
+            }
+        } else {
+            if (cached != null && sameDocument(cached, after)) {
+                return false;
+            }
+            if (operation == OperationType.INSERT) {
+                existenceFilters.addProduct(id);
+            }
+            if (cache != null && cached != null) {
+                cache.put(id, current);
+            }
+        }
+
+        Document beforeDocument = event.getFullDocumentBeforeChange();
+        Product before = beforeDocument != null ? mongoTemplate.getConverter().read(Product.class, beforeDocument) : cached;
+        List<String> categories = new ArrayList<>();
+        List<String> tags = new ArrayList<>();
+        for (Product product : new Product[] {before, current}) {
+            if (product != null) {
+                categories.add(product.getCategory());
+                if (product.getTags() != null) {
+                    tags.addAll(product.getTags());
+                }
+            }
+        }
+        cacheGenerations.bumpProducts(categories, tags);
+        return true;
+    }
+
+    private boolean applyUser(String id, OperationType operation, ChangeStreamDocument<Document> event) {
+        Cache cache = cacheManager.getCache(USERS);
+        User cached = cached(cache, id, User.class);
+        Document after = event.getFullDocument();
+        User current = after != null ? mongoTemplate.getConverter().read(User.class, after) : null;
+
+        if (current != null && cached != null && sameDocument(cached, after)) {
+            return false;
+        }
+        if (cache != null) {
+            Document beforeDocument = event.getFullDocumentBeforeChange();
+            User before = beforeDocument != null ? mongoTemplate.getConverter().read(User.class, beforeDocument) : cached;
+            if (before != null) {
+                cache.evict("email:" + before.getEmail());
+            }
+            if (current == null) {
+                cache.evict(id);
+            } else {
+                cache.evict("email:" + current.getEmail());
+                if (cached != null) {
+                    cache.put(id, current);
+                }
+            }
+        }
+        if (current != null && operation == OperationType.INSERT) {
+            existenceFilters.addUser(id, current.getEmail());
+        }
+        cacheGenerations.bumpUsers();
+        return true;
+    }
+
+    /**
+     * Entrada em cache do documento, se houver e for do tipo esperado
+     */
+    private <T> T cached(Cache cache, String id, Class<T> type) {
+        if (cache == null) {
+            return null;
+        }
+        try {
+            Cache.ValueWrapper wrapper = cache.get(id);
+            Object value = wrapper != null ? wrapper.get() : null;
+            return type.isInstance(value) ? type.cast(value) : null;
+        } catch (Exception e) {
+            logger.debug("Erro ao ler {} do cache {}: {}", id, cache.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * O documento gravado é o mesmo que a entidade em cache produziria
+     */
+    private boolean sameDocument(Object cached, Document stored) {
+        Document written = new Document();
+        mongoTemplate.getConverter().write(cached, written);
+        return written.equals(stored);
+    }
+
+    private void clearAll() {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private static String idOf(BsonDocument documentKey) {
+        BsonValue id = documentKey != null ? documentKey.get("_id") : null;
+        if (id == null) {
+            return null;
+        }
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : null;
+    }
+
+    private BsonDocument loadResumeToken(String key) {
+        String json = redisTemplate.opsForValue().get(key);
+        return json != null ? BsonDocument.parse(json) : null;
+    }
+
+    private void saveResumeToken(String key, BsonDocument token) {
+        if (token != null) {
+            redisTemplate.opsForValue().set(key, token.toJson());
+        }
+    }
+
+    private void release(RedisLease lease, String key, String token) {
+        if (token == null) {
+            return;
+        }
+        try {
+            lease.release(key, token);
+        } catch (Exception e) {
+            logger.debug("Erro ao liberar o lease do change stream: {}", e.getMessage());
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
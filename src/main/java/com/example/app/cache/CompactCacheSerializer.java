@@ -0,0 +1,542 @@
+package com.example.app.cache;
+
+import com.example.app.dto.ExternalPostDto;
+import com.example.app.dto.ExternalUserDto;
+import com.example.app.dto.ProductSummary;
+import com.example.app.dto.UserSummary;
+import com.example.app.entity.BaseEntity;
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Codec binário compacto para valores do cache
+ *
+ * Formato: byte mágico, tag do tipo e payload. Product, User, seus resumos,
+ * ExternalPostDto e ExternalUserDto têm caminho rápido com versão de schema própria; listas,
+ * números, strings e booleanos são codificados diretamente. Outros tipos caem
+ * no serializer JSON legado, embutido no envelope binário.
+ *
+ * Em modo de migração, valores sem o byte mágico (entradas JSON gravadas pela
+ * versão anterior) são lidos pelo serializer legado; com a leitura legada
+ * desligada, são tratados como ausência e recarregados.
+ */
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC1;
+
+    private static final byte TAG_NULL = 0x00;
+    private static final byte TAG_PRODUCT = 0x01;
+    private static final byte TAG_USER = 0x02;
+    private static final byte TAG_EXTERNAL_POST = 0x03;
+    private static final byte TAG_EXTERNAL_USER = 0x04;
+    private static final byte TAG_PRODUCT_SUMMARY = 0x05;
+    private static final byte TAG_USER_SUMMARY = 0x06;
+    private static final byte TAG_LIST = 0x10;
+    private static final byte TAG_LONG = 0x20;
+    private static final byte TAG_INTEGER = 0x21;
+    private static final byte TAG_STRING = 0x22;
+    private static final byte TAG_BOOLEAN = 0x23;
+    private static final byte TAG_JSON = 0x7F;
+
+    // Versão 2: inclui a versão da entidade (controle otimista); a 1 ainda é lida
+    private static final byte PRODUCT_SCHEMA = 2;
+    private static final byte USER_SCHEMA = 2;
+    private static final byte ENTITY_SCHEMA_WITHOUT_VERSION = 1;
+    private static final byte EXTERNAL_POST_SCHEMA = 1;
+    private static final byte EXTERNAL_USER_SCHEMA = 1;
+    private static final byte PRODUCT_SUMMARY_SCHEMA = 1;
+    private static final byte USER_SUMMARY_SCHEMA = 1;
+
+    /**
+     * Formato de escrita dos valores
+     */
+    public enum Format {
+        BINARY,
+        JSON
+    }
+
+    private final RedisSerializer<Object> legacySerializer;
+    private final Format writeFormat;
+    private final boolean readLegacy;
+
+    public CompactCacheSerializer(RedisSerializer<Object> legacySerializer, Format writeFormat, boolean readLegacy) {
+        this.legacySerializer = legacySerializer;
+        this.writeFormat = writeFormat;
+        this.readLegacy = readLegacy;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        if (writeFormat == Format.JSON) {
+            return legacySerializer.serialize(value);
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(MAGIC);
+            writeValue(out, value);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Erro ao serializar valor do cache: " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return readLegacy ? legacySerializer.deserialize(bytes) : null;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+            return readValue(in);
+        } catch (IOException e) {
+            throw new SerializationException("Erro ao desserializar valor do cache", e);
+        }
+    }
+
+    // ------------------------------------------------------------------ escrita
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof Product product) {
+            out.writeByte(TAG_PRODUCT);
+            writeProduct(out, product);
+        } else if (value instanceof User user) {
+            out.writeByte(TAG_USER);
+            writeUser(out, user);
+        } else if (value instanceof ExternalPostDto post) {
+            out.writeByte(TAG_EXTERNAL_POST);
+            writeExternalPost(out, post);
+        } else if (value instanceof ExternalUserDto externalUser) {
+            out.writeByte(TAG_EXTERNAL_USER);
+            writeExternalUser(out, externalUser);
+        } else if (value instanceof ProductSummary summary) {
+            out.writeByte(TAG_PRODUCT_SUMMARY);
+            writeProductSummary(out, summary);
+        } else if (value instanceof UserSummary summary) {
+            out.writeByte(TAG_USER_SUMMARY);
+            writeUserSummary(out, summary);
+        } else if (value instanceof List<?> list) {
+            out.writeByte(TAG_LIST);
+            writeVarInt(out, list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof Long number) {
+            out.writeByte(TAG_LONG);
+            out.writeLong(number);
+        } else if (value instanceof Integer number) {
+            out.writeByte(TAG_INTEGER);
+            out.writeInt(number);
+        } else if (value instanceof String string) {
+            out.writeByte(TAG_STRING);
+            writeString(out, string);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean(bool);
+        } else {
+            byte[] json = legacySerializer.serialize(value);
+            out.writeByte(TAG_JSON);
+            writeVarInt(out, json.length);
+            out.write(json);
+        }
+    }
+
+    private void writeProduct(DataOutputStream out, Product product) throws IOException {
+        out.writeByte(PRODUCT_SCHEMA);
+        writeString(out, product.getId());
+        writeString(out, product.getName());
+        writeString(out, product.getDescription());
+        writeDecimal(out, product.getPrice());
+        writeString(out, product.getCategory());
+        writeStrings(out, product.getTags());
+        out.writeBoolean(product.isAvailable());
+        writeNullableInt(out, product.getStock());
+        writeAudit(out, product);
+    }
+
+    private void writeUser(DataOutputStream out, User user) throws IOException {
+        out.writeByte(USER_SCHEMA);
+        writeString(out, user.getId());
+        writeString(out, user.getName());
+        writeString(out, user.getEmail());
+        writeString(out, user.getPhone());
+        writeString(out, user.getBio());
+        out.writeBoolean(user.isActive());
+        writeAudit(out, user);
+    }
+
+    private void writeProductSummary(DataOutputStream out, ProductSummary summary) throws IOException {
+        out.writeByte(PRODUCT_SUMMARY_SCHEMA);
+        writeString(out, summary.getId());
+        writeString(out, summary.getName());
+        writeDecimal(out, summary.getPrice());
+        writeString(out, summary.getCategory());
+        out.writeBoolean(summary.isAvailable());
+    }
+
+    private void writeUserSummary(DataOutputStream out, UserSummary summary) throws IOException {
+        out.writeByte(USER_SUMMARY_SCHEMA);
+        writeString(out, summary.getId());
+        writeString(out, summary.getName());
+        writeString(out, summary.getEmail());
+        out.writeBoolean(summary.isActive());
+    }
+
+    private void writeExternalPost(DataOutputStream out, ExternalPostDto post) throws IOException {
+        out.writeByte(EXTERNAL_POST_SCHEMA);
+        writeNullableLong(out, post.getId());
+        writeNullableLong(out, post.getUserId());
+        writeString(out, post.getTitle());
+        writeString(out, post.getBody());
+    }
+
+    private void writeExternalUser(DataOutputStream out, ExternalUserDto user) throws IOException {
+        out.writeByte(EXTERNAL_USER_SCHEMA);
+        writeNullableLong(out, user.getId());
+        writeString(out, user.getName());
+        writeString(out, user.getUsername());
+        writeString(out, user.getEmail());
+        writeString(out, user.getPhone());
+        writeString(out, user.getWebsite());
+
+        ExternalUserDto.AddressDto address = user.getAddress();
+        out.writeBoolean(address != null);
+        if (address != null) {
+            writeString(out, address.getStreet());
+            writeString(out, address.getSuite());
+            writeString(out, address.getCity());
+            writeString(out, address.getZipcode());
+            ExternalUserDto.AddressDto.GeoDto geo = address.getGeo();
+            out.writeBoolean(geo != null);
+            if (geo != null) {
+                writeString(out, geo.getLat());
+                writeString(out, geo.getLng());
+            }
+        }
+
+        ExternalUserDto.CompanyDto company = user.getCompany();
+        out.writeBoolean(company != null);
+        if (company != null) {
+            writeString(out, company.getName());
+            writeString(out, company.getCatchPhrase());
+            writeString(out, company.getBs());
+        }
+    }
+
+    private void writeAudit(DataOutputStream out, BaseEntity entity) throws IOException {
+        writeDateTime(out, entity.getCreatedDate());
+        writeDateTime(out, entity.getLastModifiedDate());
+        writeString(out, entity.getCreatedBy());
+        writeString(out, entity.getLastModifiedBy());
+        writeNullableLong(out, entity.getVersion());
+    }
+
+    // ------------------------------------------------------------------ leitura
+
+    private Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_PRODUCT:
+                return readProduct(in);
+            case TAG_USER:
+                return readUser(in);
+            case TAG_EXTERNAL_POST:
+                return readExternalPost(in);
+            case TAG_EXTERNAL_USER:
+                return readExternalUser(in);
+            case TAG_PRODUCT_SUMMARY:
+                return readProductSummary(in);
+            case TAG_USER_SUMMARY:
+                return readUserSummary(in);
+            case TAG_LIST:
+                int size = readVarInt(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_INTEGER:
+                return in.readInt();
+            case TAG_STRING:
+                return readString(in);
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_JSON:
+                byte[] json = new byte[readVarInt(in)];
+                in.readFully(json);
+                return legacySerializer.deserialize(json);
+            default:
+                throw new IOException("Tag de tipo desconhecida: " + tag);
+        }
+    }
+
+    private Product readProduct(DataInputStream in) throws IOException {
+        byte schema = in.readByte();
+        if (schema != PRODUCT_SCHEMA && schema != ENTITY_SCHEMA_WITHOUT_VERSION) {
+            throw new IOException("Versão de schema de Product não suportada: " + schema);
+        }
+        Product product = new Product();
+        product.setId(readString(in));
+        product.setName(readString(in));
+        product.setDescription(readString(in));
+        product.setPrice(readDecimal(in));
+        product.setCategory(readString(in));
+        product.setTags(readStrings(in));
+        product.setAvailable(in.readBoolean());
+        product.setStock(readNullableInt(in));
+        readAudit(in, product, schema);
+        return product;
+    }
+
+    private User readUser(DataInputStream in) throws IOException {
+        byte schema = in.readByte();
+        if (schema != USER_SCHEMA && schema != ENTITY_SCHEMA_WITHOUT_VERSION) {
+            throw new IOException("Versão de schema de User não suportada: " + schema);
+        }
+        User user = new User();
+        user.setId(readString(in));
+        user.setName(readString(in));
+        user.setEmail(readString(in));
+        user.setPhone(readString(in));
+        user.setBio(readString(in));
+        user.setActive(in.readBoolean());
+        readAudit(in, user, schema);
+        return user;
+    }
+
+    private ProductSummary readProductSummary(DataInputStream in) throws IOException {
+        byte schema = in.readByte();
+        if (schema != PRODUCT_SUMMARY_SCHEMA) {
+            throw new IOException("Versão de schema de ProductSummary não suportada: " + schema);
+        }
+        return new ProductSummary(readString(in), readString(in), readDecimal(in), readString(in), in.readBoolean());
+    }
+
+    private UserSummary readUserSummary(DataInputStream in) throws IOException {
+        byte schema = in.readByte();
+        if (schema != USER_SUMMARY_SCHEMA) {
+            throw new IOException("Versão de schema de UserSummary não suportada: " + schema);
+        }
+        return new UserSummary(readString(in), readString(in), readString(in), in.readBoolean());
+    }
+
+    private ExternalPostDto readExternalPost(DataInputStream in) throws IOException {
+        byte schema = in.readByte();
+        if (schema != EXTERNAL_POST_SCHEMA) {
+            throw new IOException("Versão de schema de ExternalPostDto não suportada: " + schema);
+        }
+        return new ExternalPostDto(readNullableLong(in), readNullableLong(in), readString(in), readString(in));
+    }
+
+    private ExternalUserDto readExternalUser(DataInputStream in) throws IOException {
+        byte schema = in.readByte();
+        if (schema != EXTERNAL_USER_SCHEMA) {
+            throw new IOException("Versão de schema de ExternalUserDto não suportada: " + schema);
+        }
+        ExternalUserDto user = new ExternalUserDto();
+        user.setId(readNullableLong(in));
+        user.setName(readString(in));
+        user.setUsername(readString(in));
+        user.setEmail(readString(in));
+        user.setPhone(readString(in));
+        user.setWebsite(readString(in));
+
+        if (in.readBoolean()) {
+            ExternalUserDto.AddressDto address = new ExternalUserDto.AddressDto();
+            address.setStreet(readString(in));
+            address.setSuite(readString(in));
+            address.setCity(readString(in));
+            address.setZipcode(readString(in));
+            if (in.readBoolean()) {
+                ExternalUserDto.AddressDto.GeoDto geo = new ExternalUserDto.AddressDto.GeoDto();
+                geo.setLat(readString(in));
+                geo.setLng(readString(in));
+                address.setGeo(geo);
+            }
+            user.setAddress(address);
+        }
+
+        if (in.readBoolean()) {
+            ExternalUserDto.CompanyDto company = new ExternalUserDto.CompanyDto();
+            company.setName(readString(in));
+            company.setCatchPhrase(readString(in));
+            company.setBs(readString(in));
+            user.setCompany(company);
+        }
+        return user;
+    }
+
+    private void readAudit(DataInputStream in, BaseEntity entity, byte schema) throws IOException {
+        entity.setCreatedDate(readDateTime(in));
+        entity.setLastModifiedDate(readDateTime(in));
+        entity.setCreatedBy(readString(in));
+        entity.setLastModifiedBy(readString(in));
+        if (schema != ENTITY_SCHEMA_WITHOUT_VERSION) {
+            entity.setVersion(readNullableLong(in));
+        }
+    }
+
+    // ------------------------------------------------------------------ primitivos
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw new IOException("VarInt inválido");
+            }
+            b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Strings: tamanho + 1 em varint (0 = null) seguido dos bytes UTF-8
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeStrings(DataOutputStream out, Collection<String> values) throws IOException {
+        if (values == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, values.size() + 1);
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = readVarInt(in);
+        if (size == 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size - 1);
+        for (int i = 0; i < size - 1; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeNullableInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readNullableInt(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readNullableLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    /**
+     * BigDecimal: escala seguida do valor não escalado em complemento de dois
+     */
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value.scale());
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            writeVarInt(out, unscaled.length);
+            out.write(unscaled);
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int scale = in.readInt();
+        byte[] unscaled = new byte[readVarInt(in)];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeDateTime(DataOutputStream out, ZonedDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            Instant instant = value.toInstant();
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+            writeString(out, value.getZone().getId());
+        }
+    }
+
+    private static ZonedDateTime readDateTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        return instant.atZone(ZoneId.of(readString(in)));
+    }
+}
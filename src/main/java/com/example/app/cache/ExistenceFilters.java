@@ -0,0 +1,302 @@
+package com.example.app.cache;
+
+import com.example.app.config.AppConfig.AppProperties;
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Filtros de Bloom dos IDs de produtos, IDs de usuários e emails existentes
+ *
+ * Respondem "certamente inexistente" sem consultar Redis ou MongoDB, barrando
+ * buscas por IDs aleatórios antes do cache (que não guarda valores nulos).
+ * São reconstruídos periodicamente a partir das coleções, o que também elimina
+ * os removidos; criações são adicionadas na hora e repassadas às demais
+ * instâncias via Redis pub/sub. Até a primeira construção, tudo é "talvez presente".
+ *
+ * O pub/sub não é confiável (mensagens se perdem), então cada adição também é
+ * gravada num ZSET do Redis por filtro (app.cache.existence.recent-key), com o
+ * instante da adição. A cada app.cache.existence.sync-interval as adições desde
+ * a última leitura são trazidas para os filtros locais; uma adição perdida no
+ * pub/sub fica invisível a esta instância por no máximo esse intervalo. A
+ * consulta nunca sai da memória (segura no event loop). Entradas mais antigas
+ * que duas reconstruções são removidas do ZSET.
+ */
+@Component
+public class ExistenceFilters {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExistenceFilters.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    // Folga para relógios diferentes entre instâncias e pipelines em andamento
+    private static final long SYNC_OVERLAP_MS = 5000;
+
+    private final MongoTemplate mongoTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final AppProperties.Cache.Existence properties;
+    private final Counter rejections;
+
+    private final Slot productIds = new Slot("productId");
+    private final Slot userIds = new Slot("userId");
+    private final Slot emails = new Slot("email");
+    private final Map<String, Slot> slots = Map.of(productIds.name, productIds, userIds.name, userIds,
+            emails.name, emails);
+
+    public ExistenceFilters(MongoTemplate mongoTemplate, StringRedisTemplate redisTemplate,
+                            AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.redisTemplate = redisTemplate;
+        this.properties = appProperties.getCache().getExistence();
+        this.rejections = Counter.builder("existence.filter.rejections")
+                .description("Consultas respondidas como inexistentes pelo filtro de Bloom")
+                .register(meterRegistry);
+    }
+
+    public String getChannel() {
+        return properties.getChannel();
+    }
+
+    /**
+     * Falso se o produto certamente não existe; só consulta a memória (seguro no event loop)
+     */
+    public boolean mightContainProduct(String id) {
+        return check(productIds, id);
+    }
+
+    /**
+     * Falso se o usuário certamente não existe; só consulta a memória
+     */
+    public boolean mightContainUser(String id) {
+        return check(userIds, id);
+    }
+
+    /**
+     * Falso se o email certamente não está em uso; só consulta a memória
+     */
+    public boolean mightContainEmail(String email) {
+        return check(emails, normalizeEmail(email));
+    }
+
+    public void addProduct(String id) {
+        add(productIds, id);
+    }
+
+    /**
+     * Adicionar vários produtos, registrando e repassando às demais instâncias em um único pipeline
+     */
+    public void addProducts(Collection<String> ids) {
+        if (!properties.isEnabled() || ids.isEmpty()) {
+            return;
+        }
+        ids.forEach(productIds::add);
+        announce(productIds, ids);
+    }
+
+    public void addUser(String id, String email) {
+        add(userIds, id);
+        add(emails, normalizeEmail(email));
+    }
+
+    /**
+     * Aplicar adição feita em outra instância ("slot\nvalor")
+     */
+    public void onRemoteAdd(String payload) {
+        int separator = payload.indexOf('\n');
+        if (separator < 0) {
+            return;
+        }
+        Slot slot = slots.get(payload.substring(0, separator));
+        if (slot != null) {
+            slot.add(payload.substring(separator + 1));
+        }
+    }
+
+    /**
+     * Reconstruir os filtros a partir das coleções
+     */
+    @Scheduled(fixedDelayString = "${app.cache.existence.rebuild-interval:600000}")
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            rebuild(Product.class, List.of(productIds), product -> productIds.addToNext(product.getId()), "_id");
+            rebuild(User.class, List.of(userIds, emails), user -> {
+                userIds.addToNext(user.getId());
+                emails.addToNext(normalizeEmail(user.getEmail()));
+            }, "_id", "email");
+            logger.info("Filtros de existência reconstruídos em {} ms", System.currentTimeMillis() - start);
+            trimRecent(start);
+        } catch (Exception e) {
+            logger.warn("Erro ao reconstruir filtros de existência: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Trazer para os filtros locais as adições registradas no Redis desde a última leitura
+     */
+    @Scheduled(fixedDelayString = "${app.cache.existence.sync-interval:1000}")
+    public void syncRecent() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (Slot slot : slots.values()) {
+            long now = System.currentTimeMillis();
+            try {
+                Set<String> values = redisTemplate.opsForZSet()
+                        .rangeByScore(recentKey(slot), slot.syncedUntil - SYNC_OVERLAP_MS, Double.POSITIVE_INFINITY);
+                if (values != null) {
+                    values.forEach(slot::add);
+                }
+                slot.syncedUntil = now;
+            } catch (Exception e) {
+                logger.debug("Erro ao ler adições recentes do filtro {}: {}", slot.name, e.getMessage());
+            }
+        }
+    }
+
+    private <T> void rebuild(Class<T> type, List<Slot> targets, Consumer<T> consumer, String... fields) {
+        long count = mongoTemplate.estimatedCount(type);
+        // Folga para as inserções até a próxima reconstrução
+        targets.forEach(slot ->
+                slot.startRebuild(new BloomFilter(Math.max(1000, count * 2), properties.getFalsePositiveRate())));
+        try {
+            Query query = new Query().cursorBatchSize(BATCH_SIZE);
+            query.fields().include(fields);
+            try (Stream<T> documents = mongoTemplate.stream(query, type)) {
+                documents.forEach(consumer);
+            }
+            targets.forEach(Slot::finishRebuild);
+        } catch (RuntimeException e) {
+            targets.forEach(Slot::abortRebuild);
+            throw e;
+        }
+    }
+
+    private boolean check(Slot slot, String value) {
+        if (!properties.isEnabled() || value == null || slot.mightContain(value)) {
+            return true;
+        }
+        rejections.increment();
+        return false;
+    }
+
+    private void add(Slot slot, String value) {
+        if (!properties.isEnabled() || value == null) {
+            return;
+        }
+        slot.add(value);
+        announce(slot, List.of(value));
+    }
+
+    /**
+     * Registrar as adições no ZSET de adições recentes e repassá-las às demais instâncias
+     */
+    private void announce(Slot slot, Collection<String> values) {
+        try {
+            byte[] rawKey = recentKey(slot).getBytes(StandardCharsets.UTF_8);
+            byte[] rawChannel = properties.getChannel().getBytes(StandardCharsets.UTF_8);
+            double now = System.currentTimeMillis();
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String value : values) {
+                    connection.zSetCommands().zAdd(rawKey, now, value.getBytes(StandardCharsets.UTF_8));
+                    connection.publish(rawChannel, (slot.name + "\n" + value).getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.warn("Erro ao registrar adições ao filtro {}: {}", slot.name, e.getMessage());
+        }
+    }
+
+    /**
+     * Remover do ZSET as adições que qualquer instância já incluiu numa reconstrução
+     */
+    private void trimRecent(long rebuildStart) {
+        double cutoff = rebuildStart - 2.0 * properties.getRebuildInterval();
+        try {
+            for (Slot slot : slots.values()) {
+                redisTemplate.opsForZSet().removeRangeByScore(recentKey(slot), Double.NEGATIVE_INFINITY, cutoff);
+            }
+        } catch (Exception e) {
+            logger.warn("Erro ao remover adições antigas dos filtros: {}", e.getMessage());
+        }
+    }
+
+    private String recentKey(Slot slot) {
+        return properties.getRecentKey() + ":" + slot.name;
+    }
+
+    private static String normalizeEmail(String email) {
+        return email != null ? email.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Filtro em uso e, durante a reconstrução, o filtro novo que recebe as mesmas adições
+     */
+    private static final class Slot {
+
+        private final String name;
+        private volatile long syncedUntil;
+        private volatile BloomFilter current;
+        private volatile BloomFilter next;
+
+        private Slot(String name) {
+            this.name = name;
+        }
+
+        boolean mightContain(String value) {
+            BloomFilter filter = current;
+            return filter == null || filter.mightContain(value);
+        }
+
+        synchronized void add(String value) {
+            if (current != null) {
+                current.add(value);
+            }
+            if (next != null) {
+                next.add(value);
+            }
+        }
+
+        synchronized void startRebuild(BloomFilter filter) {
+            next = filter;
+        }
+
+        void addToNext(String value) {
+            BloomFilter filter = next;
+            if (filter != null && value != null) {
+                filter.add(value);
+            }
+        }
+
+        synchronized void finishRebuild() {
+            current = next;
+            next = null;
+        }
+
+        synchronized void abortRebuild() {
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.app.cache;
+
+import com.example.app.config.AppConfig.AppProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contagem dos produtos mais lidos, compartilhada entre instâncias em um ZSET do Redis
+ *
+ * As leituras são contadas em memória e enviadas periodicamente ao Redis em um
+ * único pipeline (ZINCRBY), mantendo apenas os mais lidos no ZSET. O aquecimento
+ * do cache usa esse ranking para pré-carregar os produtos mais acessados.
+ */
+@Component
+public class HotKeyTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotKeyTracker.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final AppProperties.Cache.Warmup properties;
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public HotKeyTracker(StringRedisTemplate redisTemplate, AppProperties appProperties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = appProperties.getCache().getWarmup();
+    }
+
+    /**
+     * Registrar uma leitura
+     */
+    public void record(String id) {
+        if (pending.size() < properties.getHotKeyMaxTracked() || pending.containsKey(id)) {
+            pending.computeIfAbsent(id, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Ids mais lidos, do mais para o menos acessado
+     */
+    public List<String> top(int limit) {
+        Set<String> ids = redisTemplate.opsForZSet().reverseRange(properties.getHotKey(), 0, limit - 1L);
+        return ids != null ? new ArrayList<>(ids) : List.of();
+    }
+
+    /**
+     * Enviar as contagens acumuladas ao Redis
+     */
+    @Scheduled(fixedDelayString = "${app.cache.warmup.hot-key-flush-interval:10000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, Long> counts = new HashMap<>();
+        pending.keySet().forEach(id -> {
+            LongAdder adder = pending.remove(id);
+            if (adder != null) {
+                counts.put(id, adder.sum());
+            }
+        });
+
+        byte[] key = properties.getHotKey().getBytes(StandardCharsets.UTF_8);
+        long keep = properties.getHotKeyMaxTracked();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                counts.forEach((id, count) ->
+                        connection.zSetCommands().zIncrBy(key, count, id.getBytes(StandardCharsets.UTF_8)));
+                // Manter apenas os mais lidos: remove do menor score até a posição -(keep + 1)
+                connection.zSetCommands().zRemRange(key, 0, -(keep + 1));
+                return null;
+            });
+        } catch (Exception e) {
+            logger.warn("Erro ao enviar contagem de leituras ao Redis: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.app.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Leitura dos caches pelo caminho reativo: L1 local, GET não bloqueante no Redis e,
+ * na ausência, o carregador reativo
+ *
+ * Usa o mesmo prefixo, serializer e TTL do RedisCache, de modo que as entradas são
+ * intercambiáveis com as lidas e gravadas pelo {@code @Cacheable} do stack servlet.
+ * Não há single-flight nem refresh-ahead: ausências concorrentes carregam o valor
+ * cada uma, e erros do Redis caem direto no carregador.
+ */
+public class ReactiveCacheLookup {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCacheLookup.class);
+
+    private final CacheManager cacheManager;
+    private final ReactiveRedisTemplate<String, Object> redisTemplate;
+
+    public ReactiveCacheLookup(CacheManager cacheManager, ReactiveRedisConnectionFactory connectionFactory,
+                               RedisSerializer<Object> valueSerializer) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = new ReactiveRedisTemplate<>(connectionFactory,
+                RedisSerializationContext.<String, Object>newSerializationContext(RedisSerializer.string())
+                        .value(valueSerializer)
+                        .hashValue(valueSerializer)
+                        .build());
+    }
+
+    /**
+     * Valor em cache para a chave ou, na ausência, o resultado do carregador (gravado no cache)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(String cacheName, String key, Mono<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        TwoLevelCache twoLevelCache = cache instanceof TwoLevelCache tlc ? tlc : null;
+        Cache remote = twoLevelCache != null ? twoLevelCache.getRemoteCache() : cache;
+        if (!(remote instanceof RedisCache redisCache)) {
+            return loader;
+        }
+
+        String localKey = TwoLevelCache.localKey(key);
+        if (twoLevelCache != null) {
+            Object local = twoLevelCache.getLocal(localKey);
+            if (local != null) {
+                return Mono.just((T) local);
+            }
+        }
+
+        String rawKey = redisCache.getCacheConfiguration().getKeyPrefixFor(cacheName) + key;
+        return redisTemplate.opsForValue().get(rawKey)
+                .doOnNext(value -> {
+                    if (twoLevelCache != null) {
+                        twoLevelCache.putLocalFromRemote(localKey, value);
+                    }
+                })
+                .onErrorResume(e -> {
+                    logger.warn("Erro ao ler a chave {} do cache {}: {}", key, cacheName, e.getMessage());
+                    return Mono.empty();
+                })
+                .map(value -> (T) value)
+                .switchIfEmpty(Mono.defer(() -> loader.flatMap(value ->
+                        put(redisCache, rawKey, key, value).doOnSuccess(stored -> {
+                            if (twoLevelCache != null) {
+                                twoLevelCache.putLocalLoaded(localKey, value);
+                            }
+                        }).thenReturn(value))));
+    }
+
+    private Mono<Boolean> put(RedisCache cache, String rawKey, String key, Object value) {
+        Duration ttl = cache.getCacheConfiguration().getTtlFunction().getTimeToLive(key, value);
+        Mono<Boolean> set = ttl == null || ttl.isZero() || ttl.isNegative()
+                ? redisTemplate.opsForValue().set(rawKey, value)
+                : redisTemplate.opsForValue().set(rawKey, value, ttl);
+        return set.onErrorResume(e -> {
+            logger.warn("Erro ao gravar a chave {} no cache {}: {}", key, cache.getName(), e.getMessage());
+            return Mono.just(false);
+        });
+    }
+}
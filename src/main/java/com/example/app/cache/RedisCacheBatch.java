@@ -0,0 +1,93 @@
+package com.example.app.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura e escrita em lote direto nas chaves de um RedisCache
+ *
+ * Usa o mesmo prefixo, serializer e TTL do cache, de modo que as entradas são
+ * intercambiáveis com as lidas e gravadas pelo RedisCache: uma leitura é um único
+ * MGET e uma escrita é um pipeline de SET PX.
+ */
+final class RedisCacheBatch {
+
+    private RedisCacheBatch() {
+    }
+
+    /**
+     * Valores presentes no Redis para as chaves informadas (ausentes não aparecem no mapa)
+     */
+    static Map<String, Object> getAll(RedisCache cache, StringRedisTemplate redisTemplate, List<String> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        RedisCacheConfiguration configuration = cache.getCacheConfiguration();
+        byte[][] rawKeys = keys.stream().map(key -> rawKey(cache, key)).toArray(byte[][]::new);
+        List<byte[]> rawValues = redisTemplate.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+
+        Map<String, Object> values = new HashMap<>();
+        if (rawValues == null) {
+            return values;
+        }
+        for (int i = 0; i < keys.size() && i < rawValues.size(); i++) {
+            byte[] rawValue = rawValues.get(i);
+            if (rawValue != null) {
+                Object value = configuration.getValueSerializationPair().read(ByteBuffer.wrap(rawValue));
+                if (value != null) {
+                    values.put(keys.get(i), value);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Gravar as entradas com o TTL do cache em um único pipeline
+     */
+    static void putAll(RedisCache cache, StringRedisTemplate redisTemplate, Map<String, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        RedisCacheConfiguration configuration = cache.getCacheConfiguration();
+        List<byte[][]> commands = new ArrayList<>(entries.size());
+        List<Expiration> expirations = new ArrayList<>(entries.size());
+        entries.forEach((key, value) -> {
+            if (value == null) {
+                return;
+            }
+            ByteBuffer buffer = configuration.getValueSerializationPair().write(value);
+            byte[] rawValue = new byte[buffer.remaining()];
+            buffer.get(rawValue);
+            commands.add(new byte[][] {rawKey(cache, key), rawValue});
+            Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+            expirations.add(ttl == null || ttl.isZero() || ttl.isNegative()
+                    ? Expiration.persistent() : Expiration.from(ttl));
+        });
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < commands.size(); i++) {
+                connection.stringCommands().set(commands.get(i)[0], commands.get(i)[1], expirations.get(i),
+                        RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+    }
+
+    private static byte[] rawKey(RedisCache cache, String key) {
+        return (cache.getCacheConfiguration().getKeyPrefixFor(cache.getName()) + key).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.app.cache;
+
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.api.async.RedisKeyAsyncCommands;
+import io.lettuce.core.api.async.RedisServerAsyncCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Navegação de chaves do Redis sem bloquear o servidor
+ *
+ * Usa SCAN com cursor (cada chamada percorre apenas uma fatia do keyspace) em vez
+ * de KEYS, e estima estatísticas por amostragem (RANDOMKEY + MEMORY USAGE) em vez
+ * de enumerar todas as chaves.
+ */
+@Component
+public class RedisKeyScanner {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final int MAX_SCAN_CALLS_PER_PAGE = 10;
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisKeyScanner(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Ler uma página de chaves a partir do cursor informado ("0" inicia a varredura)
+     *
+     * O COUNT é apenas uma dica para o Redis: a página pode vir com mais ou menos
+     * chaves, e uma mesma chave pode aparecer em páginas diferentes.
+     */
+    public ScanPage scan(String cursor, String pattern, int count) {
+        return withCommands(commands -> {
+            List<String> keys = new ArrayList<>();
+            ScanArgs args = ScanArgs.Builder.matches(pattern).limit(count);
+            KeyScanCursor<byte[]> page = null;
+            ScanCursor next = ScanCursor.of(cursor);
+            // Com MATCH seletivo o SCAN retorna páginas vazias; algumas chamadas extras preenchem a página
+            for (int calls = 0; calls < MAX_SCAN_CALLS_PER_PAGE && keys.size() < count; calls++) {
+                page = await(commands.keys().scan(next, args));
+                page.getKeys().forEach(key -> keys.add(new String(key, StandardCharsets.UTF_8)));
+                if (page.isFinished()) {
+                    break;
+                }
+                next = page;
+            }
+            boolean finished = page == null || page.isFinished();
+            return new ScanPage(finished ? "0" : page.getCursor(), finished, keys);
+        });
+    }
+
+    /**
+     * Percorrer todas as chaves do padrão, entregando uma página por vez ao consumidor
+     */
+    public void scanAll(String pattern, int count, long limit, Consumer<List<String>> consumer) {
+        String cursor = "0";
+        long delivered = 0;
+        do {
+            ScanPage page = scan(cursor, pattern, count);
+            List<String> keys = page.keys();
+            if (delivered + keys.size() > limit) {
+                keys = keys.subList(0, (int) (limit - delivered));
+            }
+            if (!keys.isEmpty()) {
+                consumer.accept(keys);
+                delivered += keys.size();
+            }
+            cursor = page.finished() ? null : page.cursor();
+        } while (cursor != null && delivered < limit);
+    }
+
+    /**
+     * Estatísticas do keyspace estimadas a partir de uma amostra aleatória de chaves
+     */
+    public KeyspaceSample sample(int sampleSize) {
+        return withCommands(commands -> {
+            long totalKeys = await(commands.server().dbsize());
+            if (totalKeys == 0 || sampleSize <= 0) {
+                return new KeyspaceSample(totalKeys, 0, 0, 0, Map.of());
+            }
+
+            // Comandos enviados sem aguardar um a um: o Lettuce os encadeia na mesma conexão
+            List<RedisFuture<byte[]>> randomKeys = new ArrayList<>(sampleSize);
+            for (int i = 0; i < sampleSize; i++) {
+                randomKeys.add(commands.keys().randomkey());
+            }
+            List<byte[]> keys = new ArrayList<>(sampleSize);
+            List<RedisFuture<Long>> usages = new ArrayList<>(sampleSize);
+            for (RedisFuture<byte[]> randomKey : randomKeys) {
+                byte[] key = await(randomKey);
+                if (key != null) {
+                    keys.add(key);
+                    usages.add(commands.server().memoryUsage(key));
+                }
+            }
+
+            Map<String, Long> prefixSamples = new TreeMap<>();
+            long sampledBytes = 0;
+            for (int i = 0; i < keys.size(); i++) {
+                Long usage = await(usages.get(i));
+                sampledBytes += usage != null ? usage : 0;
+                prefixSamples.merge(prefixOf(new String(keys.get(i), StandardCharsets.UTF_8)), 1L, Long::sum);
+            }
+
+            int sampled = keys.size();
+            Map<String, Long> estimatedByPrefix = new LinkedHashMap<>();
+            prefixSamples.forEach((prefix, hits) ->
+                    estimatedByPrefix.put(prefix, Math.round((double) hits / sampled * totalKeys)));
+            long averageBytes = sampled > 0 ? sampledBytes / sampled : 0;
+            return new KeyspaceSample(totalKeys, sampled, averageBytes, averageBytes * totalKeys, estimatedByPrefix);
+        });
+    }
+
+    /**
+     * Prefixo de uma chave: o trecho antes do primeiro ':' (ex.: "products" em "products::123")
+     */
+    static String prefixOf(String key) {
+        int separator = key.indexOf(':');
+        return separator > 0 ? key.substring(0, separator) : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T withCommands(Function<AsyncCommands, T> action) {
+        return redisTemplate.execute((RedisCallback<T>) connection -> {
+            Object nativeConnection = connection.getNativeConnection();
+            return action.apply(new AsyncCommands((RedisKeyAsyncCommands<byte[], byte[]>) nativeConnection,
+                    (RedisServerAsyncCommands<byte[], byte[]>) nativeConnection));
+        });
+    }
+
+    private static <T> T await(RedisFuture<T> future) {
+        return LettuceFutures.awaitOrCancel(future, TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private record AsyncCommands(RedisKeyAsyncCommands<byte[], byte[]> keys,
+                                 RedisServerAsyncCommands<byte[], byte[]> server) {
+    }
+
+    /**
+     * Página de uma varredura SCAN; {@code cursor} retoma a varredura na próxima chamada
+     */
+    public record ScanPage(String cursor, boolean finished, List<String> keys) {
+    }
+
+    /**
+     * Estatísticas estimadas por amostragem
+     */
+    public record KeyspaceSample(long totalKeys, int sampledKeys, long averageKeyBytes,
+                                 long estimatedMemoryBytes, Map<String, Long> estimatedKeysByPrefix) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.app.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lease curto no Redis (SET NX PX) para coordenar trabalho entre instâncias
+ *
+ * Cada aquisição gera um token próprio; liberação e renovação só têm efeito
+ * para quem ainda detém o lease, evitando remover o lease de outra instância
+ * depois de uma expiração.
+ */
+public class RedisLease {
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisLease(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Tentar adquirir o lease; retorna o token ou {@code null} se outra instância o detém
+     */
+    public String tryAcquire(String key, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(key, token, ttl);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    /**
+     * Renovar o lease se ainda for o detentor
+     */
+    public boolean renew(String key, String token, Duration ttl) {
+        Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(key), token, String.valueOf(ttl.toMillis()));
+        return renewed != null && renewed > 0;
+    }
+
+    /**
+     * Liberar o lease se ainda for o detentor
+     */
+    public void release(String key, String token) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(key), token);
+    }
+
+    /**
+     * Verificar se alguma instância detém o lease
+     */
+    public boolean isHeld(String key) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+    }
+}
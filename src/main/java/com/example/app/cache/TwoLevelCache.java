@@ -0,0 +1,603 @@
+package com.example.app.cache;
+
+import com.example.app.config.AppConfig.AppProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache em dois níveis: L1 local (Caffeine) na frente do L2 compartilhado (Redis)
+ *
+ * Leituras consultam o L1 e só vão ao Redis em caso de ausência. Escritas e
+ * remoções atualizam o Redis, o L1 desta instância e publicam uma invalidação
+ * para que as demais instâncias descartem sua cópia local.
+ *
+ * Com refresh-ahead habilitado, leituras via {@code @Cacheable(sync = true)} de
+ * entradas próximas da expiração disparam a recarga assíncrona do valor, e o
+ * chamador recebe imediatamente o valor atual.
+ *
+ * Ausências em leituras {@code sync = true} passam por single-flight: chamadas
+ * concorrentes nesta instância compartilham a mesma carga, e entre instâncias
+ * um lease curto no Redis garante que só um carregador vá ao banco; as demais
+ * aguardam o valor aparecer no Redis por um tempo limitado.
+ *
+ * Os valores do L1 são compartilhados entre chamadas e não devem ser alterados.
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+
+    private static final String NO_LEASE = "";
+
+    private final String name;
+    private final Cache redisCache;
+    private final com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> localCache;
+    private final CacheInvalidationPublisher publisher;
+    private final StringRedisTemplate redisTemplate;
+    private final Executor refreshExecutor;
+    private final Duration ttl;
+    private final Duration refreshAhead;
+    private final RedisLease lease;
+    private final AppProperties.Cache.SingleFlight singleFlight;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder sharedLoads = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Timer loadTimer;
+    private final Timer failedLoadTimer;
+
+    public TwoLevelCache(String name, Cache redisCache,
+                         com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> localCache,
+                         CacheInvalidationPublisher publisher, StringRedisTemplate redisTemplate,
+                         Executor refreshExecutor, Duration ttl, Duration refreshAhead,
+                         RedisLease lease, AppProperties.Cache.SingleFlight singleFlight,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.redisCache = redisCache;
+        this.localCache = localCache;
+        this.publisher = publisher;
+        this.redisTemplate = redisTemplate;
+        this.refreshExecutor = refreshExecutor;
+        this.ttl = ttl;
+        this.refreshAhead = refreshAhead;
+        this.lease = lease;
+        this.singleFlight = singleFlight;
+        this.loadTimer = loadTimer(meterRegistry, "success");
+        this.failedLoadTimer = loadTimer(meterRegistry, "failure");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        LocalEntry entry = lookup(key);
+        return entry != null ? new SimpleValueWrapper(entry.value()) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Valor em cache não é do tipo " + type.getName() + ": " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        LocalEntry entry = lookup(key);
+        if (entry != null) {
+            maybeRefresh(key, entry, valueLoader);
+            return (T) entry.value();
+        }
+        if (!singleFlight.isEnabled()) {
+            return (T) loadAndPut(key, valueLoader);
+        }
+        return (T) loadSingleFlight(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        redisCache.put(key, value);
+        puts.increment();
+        String localKey = localKey(key);
+        if (value != null) {
+            localCache.put(localKey, new LocalEntry(value, System.currentTimeMillis() + ttl.toMillis()));
+        } else {
+            localCache.invalidate(localKey);
+        }
+        publisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = redisCache.putIfAbsent(key, value);
+        String localKey = localKey(key);
+        if (existing == null) {
+            puts.increment();
+            if (value != null) {
+                localCache.put(localKey, new LocalEntry(value, System.currentTimeMillis() + ttl.toMillis()));
+            }
+            publisher.publishEvict(name, localKey);
+        } else if (existing.get() != null) {
+            localCache.put(localKey, new LocalEntry(existing.get(), remoteExpiry(localKey)));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisCache.evict(key);
+        evictions.increment();
+        String localKey = localKey(key);
+        localCache.invalidate(localKey);
+        publisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = redisCache.evictIfPresent(key);
+        if (evicted) {
+            evictions.increment();
+        }
+        String localKey = localKey(key);
+        localCache.invalidate(localKey);
+        publisher.publishEvict(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        localCache.invalidateAll();
+        publisher.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = redisCache.invalidate();
+        localCache.invalidateAll();
+        publisher.publishClear(name);
+        return invalidated;
+    }
+
+    /**
+     * Ler várias chaves: L1 primeiro e um único MGET no Redis para as demais
+     *
+     * As chaves ausentes nos dois níveis não aparecem no mapa retornado.
+     */
+    public Map<String, Object> getAll(Collection<String> keys) {
+        Map<String, Object> values = new HashMap<>();
+        List<String> remoteKeys = new ArrayList<>();
+        for (String key : keys) {
+            LocalEntry entry = localCache.getIfPresent(key);
+            if (entry != null) {
+                localHits.increment();
+                values.put(key, entry.value());
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return values;
+        }
+
+        Map<String, Object> remoteValues = redisCache instanceof RedisCache cache
+                ? RedisCacheBatch.getAll(cache, redisTemplate, remoteKeys)
+                : getEach(remoteKeys);
+        for (String key : remoteKeys) {
+            Object value = remoteValues.get(key);
+            if (value == null) {
+                misses.increment();
+                continue;
+            }
+            remoteHits.increment();
+            // Sem PTTL por chave no lote: a entrada local expira pelo TTL do L1
+            localCache.put(key, new LocalEntry(value, 0));
+            values.put(key, value);
+        }
+        return values;
+    }
+
+    /**
+     * Gravar várias entradas: um pipeline no Redis e uma única publicação de invalidação
+     */
+    public void putAll(Map<String, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (redisCache instanceof RedisCache cache) {
+            RedisCacheBatch.putAll(cache, redisTemplate, entries);
+        } else {
+            entries.forEach(redisCache::put);
+        }
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        entries.forEach((key, value) -> {
+            if (value != null) {
+                localCache.put(key, new LocalEntry(value, expiresAt));
+            } else {
+                localCache.invalidate(key);
+            }
+        });
+        puts.add(entries.size());
+        publisher.publishEvictAll(name, entries.keySet());
+    }
+
+    private Map<String, Object> getEach(List<String> keys) {
+        Map<String, Object> values = new HashMap<>();
+        for (String key : keys) {
+            ValueWrapper wrapper = redisCache.get(key);
+            if (wrapper != null && wrapper.get() != null) {
+                values.put(key, wrapper.get());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Cache Redis atrás do L1
+     */
+    Cache getRemoteCache() {
+        return redisCache;
+    }
+
+    /**
+     * Valor do L1, sem ir ao Redis (leitura reativa)
+     */
+    Object getLocal(String localKey) {
+        LocalEntry entry = localCache.getIfPresent(localKey);
+        if (entry == null) {
+            return null;
+        }
+        localHits.increment();
+        return entry.value();
+    }
+
+    /**
+     * Guardar no L1 um valor lido do Redis pela leitura reativa
+     */
+    void putLocalFromRemote(String localKey, Object value) {
+        remoteHits.increment();
+        localCache.put(localKey, new LocalEntry(value, 0));
+    }
+
+    /**
+     * Guardar no L1 um valor carregado do banco e já gravado no Redis pela leitura reativa
+     */
+    void putLocalLoaded(String localKey, Object value) {
+        misses.increment();
+        loads.increment();
+        puts.increment();
+        localCache.put(localKey, new LocalEntry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    /**
+     * Descartar uma chave apenas do L1 (invalidação recebida de outra instância)
+     */
+    void evictLocal(String localKey) {
+        localCache.invalidate(localKey);
+    }
+
+    /**
+     * Descartar todo o L1 (invalidação recebida de outra instância)
+     */
+    void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    /**
+     * Estatísticas de acerto por nível
+     */
+    public TierStats getStats() {
+        return new TierStats(localHits.sum(), remoteHits.sum(), misses.sum(), puts.sum(), evictions.sum(),
+                loads.sum(), sharedLoads.sum(), refreshes.sum(), localCache.estimatedSize(),
+                localCache.stats().evictionCount());
+    }
+
+    private LocalEntry lookup(Object key) {
+        String localKey = localKey(key);
+        LocalEntry entry = localCache.getIfPresent(localKey);
+        if (entry != null) {
+            localHits.increment();
+            return entry;
+        }
+
+        ValueWrapper wrapper = redisCache.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            misses.increment();
+            return null;
+        }
+
+        remoteHits.increment();
+        entry = new LocalEntry(wrapper.get(), remoteExpiry(localKey));
+        localCache.put(localKey, entry);
+        return entry;
+    }
+
+    private Object loadAndPut(Object key, Callable<?> valueLoader) {
+        Object value;
+        try {
+            value = timedLoad(valueLoader);
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Executar o carregador registrando a duração no timer cache.load
+     */
+    private Object timedLoad(Callable<?> valueLoader) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object value = valueLoader.call();
+            success = true;
+            return value;
+        } finally {
+            loads.increment();
+            (success ? loadTimer : failedLoadTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer loadTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("cache.load")
+                .description("Duração das cargas do valor na origem após uma ausência no cache")
+                .tag("cache", name)
+                .tag("result", result)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carga única por chave: chamadas concorrentes nesta instância aguardam a mesma carga
+     */
+    private Object loadSingleFlight(Object key, Callable<?> valueLoader) {
+        String localKey = localKey(key);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(localKey, future);
+        if (existing != null) {
+            sharedLoads.increment();
+            try {
+                return existing.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ValueRetrievalException(key, valueLoader, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+
+        try {
+            Object value = loadWithLease(key, localKey, valueLoader);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, future);
+        }
+    }
+
+    /**
+     * Carga coordenada entre instâncias: só o detentor do lease vai ao banco
+     */
+    private Object loadWithLease(Object key, String localKey, Callable<?> valueLoader) {
+        String leaseKey = leaseKey(localKey);
+        String token = tryAcquireLease(leaseKey);
+        if (token == null) {
+            LocalEntry entry = awaitRemoteLoad(key, localKey, leaseKey);
+            if (entry != null) {
+                return entry.value();
+            }
+            // O detentor não produziu valor a tempo: carregar nesta instância
+            return loadAndPut(key, valueLoader);
+        }
+
+        try {
+            // Outra instância pode ter concluído a carga logo antes da aquisição do lease
+            ValueWrapper wrapper = redisCache.get(key);
+            if (wrapper != null && wrapper.get() != null) {
+                LocalEntry entry = new LocalEntry(wrapper.get(), remoteExpiry(localKey));
+                localCache.put(localKey, entry);
+                return entry.value();
+            }
+            return loadAndPut(key, valueLoader);
+        } finally {
+            releaseLease(leaseKey, token);
+        }
+    }
+
+    /**
+     * Aguardar o detentor do lease publicar o valor no Redis
+     */
+    private LocalEntry awaitRemoteLoad(Object key, String localKey, String leaseKey) {
+        long deadline = System.currentTimeMillis() + singleFlight.getWaitTimeout();
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                Thread.sleep(singleFlight.getPollInterval());
+                if (!lease.isHeld(leaseKey)) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            logger.debug("Erro ao aguardar lease {}: {}", leaseKey, e.getMessage());
+            return null;
+        }
+
+        ValueWrapper wrapper = redisCache.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+        LocalEntry entry = new LocalEntry(wrapper.get(), remoteExpiry(localKey));
+        localCache.put(localKey, entry);
+        return entry;
+    }
+
+    private String tryAcquireLease(String leaseKey) {
+        try {
+            return lease.tryAcquire(leaseKey, Duration.ofMillis(singleFlight.getLeaseTimeout()));
+        } catch (Exception e) {
+            // Sem Redis para coordenar, a carga segue apenas com o single-flight local
+            logger.debug("Erro ao adquirir lease {}: {}", leaseKey, e.getMessage());
+            return NO_LEASE;
+        }
+    }
+
+    private void releaseLease(String leaseKey, String token) {
+        if (NO_LEASE.equals(token)) {
+            return;
+        }
+        try {
+            lease.release(leaseKey, token);
+        } catch (Exception e) {
+            logger.debug("Erro ao liberar lease {}: {}", leaseKey, e.getMessage());
+        }
+    }
+
+    private String leaseKey(String localKey) {
+        return "lock:" + CacheKeyPrefix.simple().compute(name) + localKey;
+    }
+
+    /**
+     * Disparar recarga assíncrona quando a entrada estiver dentro da janela de refresh-ahead
+     */
+    private void maybeRefresh(Object key, LocalEntry entry, Callable<?> valueLoader) {
+        if (refreshAhead.isZero() || entry.expiresAt() == 0
+                || System.currentTimeMillis() < entry.expiresAt() - refreshAhead.toMillis()) {
+            return;
+        }
+
+        String localKey = localKey(key);
+        if (!refreshing.add(localKey)) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                String leaseKey = leaseKey(localKey);
+                String token = singleFlight.isEnabled() ? tryAcquireLease(leaseKey) : NO_LEASE;
+                if (token == null) {
+                    // Outra instância já está recarregando esta chave
+                    refreshing.remove(localKey);
+                    return;
+                }
+                try {
+                    Object value = timedLoad(valueLoader);
+                    if (value != null) {
+                        put(key, value);
+                        refreshes.increment();
+                    }
+                } catch (Exception e) {
+                    logger.warn("Erro no refresh-ahead do cache {} (chave {}): {}", name, localKey, e.getMessage());
+                } finally {
+                    releaseLease(leaseKey, token);
+                    refreshing.remove(localKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(localKey);
+        }
+    }
+
+    /**
+     * Expiração da entrada no Redis; só é consultada quando o refresh-ahead está habilitado
+     */
+    private long remoteExpiry(String localKey) {
+        if (refreshAhead.isZero()) {
+            return 0;
+        }
+        try {
+            Long remaining = redisTemplate.getExpire(CacheKeyPrefix.simple().compute(name) + localKey,
+                    TimeUnit.MILLISECONDS);
+            return remaining != null && remaining > 0 ? System.currentTimeMillis() + remaining : 0;
+        } catch (Exception e) {
+            logger.debug("Erro ao consultar TTL da chave {} no cache {}: {}", localKey, name, e.getMessage());
+            return 0;
+        }
+    }
+
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * Entrada do L1 com o instante de expiração conhecido no Redis (0 quando desconhecido)
+     */
+    record LocalEntry(Object value, long expiresAt) {
+    }
+
+    /**
+     * Fotografia das estatísticas de um cache em dois níveis
+     */
+    public record TierStats(long localHits, long remoteHits, long misses, long puts, long evictions,
+                            long loads, long sharedLoads, long refreshes, long localSize, long localEvictions) {
+
+        public long requests() {
+            return localHits + remoteHits + misses;
+        }
+
+        public double localHitRate() {
+            return requests() == 0 ? 0.0 : (double) localHits / requests();
+        }
+
+        public double remoteHitRate() {
+            return requests() == 0 ? 0.0 : (double) remoteHits / requests();
+        }
+
+        public double hitRate() {
+            return requests() == 0 ? 0.0 : (double) (localHits + remoteHits) / requests();
+        }
+    }
+}
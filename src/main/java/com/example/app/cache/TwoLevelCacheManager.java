@@ -0,0 +1,181 @@
+package com.example.app.cache;
+
+import com.example.app.cache.TwoLevelCache.LocalEntry;
+import com.example.app.config.AppConfig.AppProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CacheManager composto: L1 local limitado por peso/quantidade na frente do RedisCacheManager
+ *
+ * TTL, tamanho e peso máximos do L1 e refresh-ahead de cada cache vêm de app.cache.policies.
+ * Cada cache criado tem suas métricas registradas no MeterRegistry (tag cache = nome).
+ * A soma dos pesos dos L1 criados é comparada ao heap: passar de um quarto gera um aviso.
+ */
+public class TwoLevelCacheManager implements CacheManager, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    private final RedisCacheManager redisCacheManager;
+    private final AppProperties.Cache properties;
+    private final CacheInvalidationPublisher publisher;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisLease lease;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final AtomicLong localWeight = new AtomicLong();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, AppProperties.Cache properties,
+                                CacheInvalidationPublisher publisher, StringRedisTemplate redisTemplate,
+                                MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.properties = properties;
+        this.publisher = publisher;
+        this.redisTemplate = redisTemplate;
+        this.lease = new RedisLease(redisTemplate);
+        this.meterRegistry = meterRegistry;
+        this.refreshExecutor = createRefreshExecutor(properties.getRefreshThreads());
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(redisCacheManager.getCacheNames());
+        names.addAll(caches.keySet());
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Caches em dois níveis já criados nesta instância
+     */
+    public Map<String, TwoLevelCache> getTwoLevelCaches() {
+        return Collections.unmodifiableMap(caches);
+    }
+
+    /**
+     * Aplicar invalidação recebida de outra instância
+     */
+    public void onInvalidation(CacheInvalidationMessage message) {
+        if (publisher.getInstanceId().equals(message.origin())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(message.cacheName());
+        if (cache == null) {
+            return;
+        }
+        logger.debug("Invalidando L1 do cache {} (chave {})", message.cacheName(), message.key());
+        if (message.isClear()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(message.key());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Executor das recargas assíncronas (refresh-ahead)
+     *
+     * Fila limitada: quando cheia, a recarga é descartada e o valor atual
+     * continua sendo servido até a expiração.
+     */
+    private static ThreadPoolExecutor createRefreshExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(100),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache redisCache = redisCacheManager.getCache(name);
+        if (redisCache == null) {
+            throw new IllegalStateException("Cache Redis não disponível: " + name);
+        }
+        AppProperties.Cache.Policy policy = properties.policyFor(name);
+        Duration ttl = Duration.ofSeconds(policy.getTtl());
+        Duration refreshAhead = Duration.ofSeconds(Math.min(policy.getRefreshAhead(), policy.getTtl()));
+        long totalWeight = localWeight.addAndGet(policy.getMaxWeight());
+        if (totalWeight > Runtime.getRuntime().maxMemory() / 4) {
+            logger.warn("Peso máximo somado dos L1 ({} bytes, com o cache {}) passa de um quarto do heap ({} bytes)",
+                    totalWeight, name, Runtime.getRuntime().maxMemory());
+        }
+        TwoLevelCache cache = new TwoLevelCache(name, redisCache, buildLocalCache(policy), publisher, redisTemplate,
+                refreshExecutor, ttl, refreshAhead, lease, properties.getSingleFlight(), meterRegistry);
+        new TwoLevelCacheMeterBinder(cache, Tags.of("cacheManager", "cacheManager")).bindTo(meterRegistry);
+        return cache;
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> buildLocalCache(AppProperties.Cache.Policy policy) {
+        AppProperties.Cache.Near near = properties.getNear();
+        // Cada entrada pesa no mínimo maxWeight / maxSize, de modo que o limite de
+        // peso também garante o limite de quantidade de entradas
+        long minWeight = Math.max(1, policy.getMaxWeight() / Math.max(1, policy.getMaxSize()));
+        long localTtlNanos = Duration.ofSeconds(Math.min(near.getTtl(), policy.getTtl())).toNanos();
+        return Caffeine.newBuilder()
+                .maximumWeight(policy.getMaxWeight())
+                .weigher((String key, LocalEntry entry) ->
+                        (int) Math.min(Integer.MAX_VALUE, Math.max(minWeight, ValueSizeEstimator.estimate(entry.value()))))
+                .expireAfter(new LocalExpiry(localTtlNanos))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Expira a entrada local no TTL do L1 ou na expiração conhecida do Redis, o que vier antes
+     */
+    private record LocalExpiry(long localTtlNanos) implements Expiry<String, LocalEntry> {
+
+        @Override
+        public long expireAfterCreate(String key, LocalEntry entry, long currentTime) {
+            if (entry.expiresAt() == 0) {
+                return localTtlNanos;
+            }
+            long remainingNanos = Duration.ofMillis(entry.expiresAt() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(localTtlNanos, remainingNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, LocalEntry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, LocalEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
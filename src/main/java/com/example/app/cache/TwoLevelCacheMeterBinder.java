@@ -0,0 +1,102 @@
+package com.example.app.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Métricas de um cache em dois níveis
+ *
+ * Além das métricas padrão (cache.gets, cache.puts, cache.evictions, cache.size),
+ * publica acertos e ausências por nível em cache.tier.gets (tier = l1 | l2), tamanho
+ * e evicções do L1, cargas compartilhadas pelo single-flight e recargas antecipadas.
+ * A duração das cargas é registrada pelo próprio cache no timer cache.load.
+ */
+public class TwoLevelCacheMeterBinder extends CacheMeterBinder<TwoLevelCache> {
+
+    public TwoLevelCacheMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getStats().localSize() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoLevelCache cache = getCache();
+        if (cache == null) {
+            return 0L;
+        }
+        TwoLevelCache.TierStats stats = cache.getStats();
+        return stats.localHits() + stats.remoteHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getStats().misses() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getStats().evictions() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getStats().puts() : 0L;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoLevelCache cache = getCache();
+        if (cache == null) {
+            return;
+        }
+
+        tierGets(registry, cache, "l1", "hit", TwoLevelCache.TierStats::localHits);
+        tierGets(registry, cache, "l1", "miss", stats -> stats.remoteHits() + stats.misses());
+        tierGets(registry, cache, "l2", "hit", TwoLevelCache.TierStats::remoteHits);
+        tierGets(registry, cache, "l2", "miss", TwoLevelCache.TierStats::misses);
+
+        Gauge.builder("cache.tier.size", cache, c -> c.getStats().localSize())
+                .tags(getTagsWithCacheName())
+                .tag("tier", "l1")
+                .description("Entradas no cache local")
+                .register(registry);
+
+        FunctionCounter.builder("cache.tier.evictions", cache, c -> c.getStats().localEvictions())
+                .tags(getTagsWithCacheName())
+                .tag("tier", "l1")
+                .description("Entradas removidas do cache local por tamanho ou peso")
+                .register(registry);
+
+        FunctionCounter.builder("cache.loads.shared", cache, c -> c.getStats().sharedLoads())
+                .tags(getTagsWithCacheName())
+                .description("Ausências atendidas por uma carga já em andamento (single-flight)")
+                .register(registry);
+
+        FunctionCounter.builder("cache.refreshes", cache, c -> c.getStats().refreshes())
+                .tags(getTagsWithCacheName())
+                .description("Recargas antecipadas (refresh-ahead) concluídas")
+                .register(registry);
+    }
+
+    private void tierGets(MeterRegistry registry, TwoLevelCache cache, String tier, String result,
+                          ToDoubleFunction<TwoLevelCache.TierStats> count) {
+        FunctionCounter.builder("cache.tier.gets", cache, c -> count.applyAsDouble(c.getStats()))
+                .tags(Tags.concat(getTagsWithCacheName(), "tier", tier, "result", result))
+                .description("Leituras por nível do cache")
+                .register(registry);
+    }
+}
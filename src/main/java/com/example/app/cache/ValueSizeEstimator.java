@@ -0,0 +1,83 @@
+package com.example.app.cache;
+
+import com.example.app.dto.ProductSummary;
+import com.example.app.dto.UserSummary;
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Estimativa barata do tamanho em memória de valores do cache local
+ *
+ * Não precisa ser exata: serve apenas para limitar o peso total do L1.
+ */
+final class ValueSizeEstimator {
+
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int REFERENCE = 8;
+    private static final int UNKNOWN_OBJECT = 256;
+
+    private ValueSizeEstimator() {
+    }
+
+    static long estimate(Object value) {
+        if (value == null) {
+            return REFERENCE;
+        }
+        if (value instanceof String string) {
+            return OBJECT_OVERHEAD + 24 + string.length();
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return OBJECT_OVERHEAD + 8;
+        }
+        if (value instanceof Optional<?> optional) {
+            return OBJECT_OVERHEAD + optional.map(ValueSizeEstimator::estimate).orElse(0L);
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = OBJECT_OVERHEAD + 24;
+            for (Object element : collection) {
+                size += REFERENCE + estimate(element);
+            }
+            return size;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = OBJECT_OVERHEAD + 48;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += 32 + estimate(entry.getKey()) + estimate(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Product product) {
+            return OBJECT_OVERHEAD + 160
+                    + estimate(product.getId())
+                    + estimate(product.getName())
+                    + estimate(product.getDescription())
+                    + estimate(product.getCategory())
+                    + estimate(product.getTags());
+        }
+        if (value instanceof User user) {
+            return OBJECT_OVERHEAD + 160
+                    + estimate(user.getId())
+                    + estimate(user.getName())
+                    + estimate(user.getEmail())
+                    + estimate(user.getPhone())
+                    + estimate(user.getBio());
+        }
+        if (value instanceof ProductSummary summary) {
+            return OBJECT_OVERHEAD + 48
+                    + estimate(summary.getId())
+                    + estimate(summary.getName())
+                    + estimate(summary.getCategory());
+        }
+        if (value instanceof UserSummary summary) {
+            return OBJECT_OVERHEAD + 32
+                    + estimate(summary.getId())
+                    + estimate(summary.getName())
+                    + estimate(summary.getEmail());
+        }
+        return UNKNOWN_OBJECT;
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.app.config;
 
+import com.example.app.cache.CompactCacheSerializer;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Configuração geral da aplicação
  */
@@ -44,6 +51,10 @@ public class AppConfig {
     public static class AppProperties {
         private ExternalApi externalApi = new ExternalApi();
         private Cache cache = new Cache();
+        private Migrations migrations = new Migrations();
+        private Bulk bulk = new Bulk();
+        private Export export = new Export();
+        private Mongo mongo = new Mongo();
 
         public ExternalApi getExternalApi() {
             return externalApi;
@@ -61,6 +72,304 @@ public class AppConfig {
             this.cache = cache;
         }
 
+        public Migrations getMigrations() {
+            return migrations;
+        }
+
+        public void setMigrations(Migrations migrations) {
+            this.migrations = migrations;
+        }
+
+        public Bulk getBulk() {
+            return bulk;
+        }
+
+        public void setBulk(Bulk bulk) {
+            this.bulk = bulk;
+        }
+
+        public Export getExport() {
+            return export;
+        }
+
+        public void setExport(Export export) {
+            this.export = export;
+        }
+
+        public Mongo getMongo() {
+            return mongo;
+        }
+
+        public void setMongo(Mongo mongo) {
+            this.mongo = mongo;
+        }
+
+        /**
+         * Cliente MongoDB: pool de conexões, timeouts, compressão e instrumentação dos comandos
+         *
+         * Valores nulos mantêm o padrão do driver; opções presentes na URI têm precedência.
+         */
+        public static class Mongo {
+            private Pool pool = new Pool();
+            private Integer connectTimeout; // ms
+            private Integer socketTimeout; // ms de espera pela resposta (0 = sem limite)
+            private Integer serverSelectionTimeout; // ms
+            private List<String> compressors = new ArrayList<>(); // zstd, snappy, zlib (em ordem de preferência)
+            private Commands commands = new Commands();
+            private ReadRouting readRouting = new ReadRouting();
+
+            public Pool getPool() {
+                return pool;
+            }
+
+            public void setPool(Pool pool) {
+                this.pool = pool;
+            }
+
+            public Integer getConnectTimeout() {
+                return connectTimeout;
+            }
+
+            public void setConnectTimeout(Integer connectTimeout) {
+                this.connectTimeout = connectTimeout;
+            }
+
+            public Integer getSocketTimeout() {
+                return socketTimeout;
+            }
+
+            public void setSocketTimeout(Integer socketTimeout) {
+                this.socketTimeout = socketTimeout;
+            }
+
+            public Integer getServerSelectionTimeout() {
+                return serverSelectionTimeout;
+            }
+
+            public void setServerSelectionTimeout(Integer serverSelectionTimeout) {
+                this.serverSelectionTimeout = serverSelectionTimeout;
+            }
+
+            public List<String> getCompressors() {
+                return compressors;
+            }
+
+            public void setCompressors(List<String> compressors) {
+                this.compressors = compressors;
+            }
+
+            public Commands getCommands() {
+                return commands;
+            }
+
+            public void setCommands(Commands commands) {
+                this.commands = commands;
+            }
+
+            public ReadRouting getReadRouting() {
+                return readRouting;
+            }
+
+            public void setReadRouting(ReadRouting readRouting) {
+                this.readRouting = readRouting;
+            }
+
+            /**
+             * Leituras marcadas com @ReadRouting (desabilitado: todas vão para o primário)
+             */
+            public static class ReadRouting {
+                private boolean enabled = true;
+                private long maxStaleness = 90; // segundos; padrão das marcações sem valor próprio (mínimo 90)
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public long getMaxStaleness() {
+                    return maxStaleness;
+                }
+
+                public void setMaxStaleness(long maxStaleness) {
+                    this.maxStaleness = maxStaleness;
+                }
+            }
+
+            /**
+             * Pool de conexões por servidor
+             */
+            public static class Pool {
+                private Integer minSize;
+                private Integer maxSize;
+                private Integer maxConnecting; // conexões sendo abertas ao mesmo tempo
+                private Integer maxWait; // ms aguardando uma conexão livre
+                private Integer maxIdleTime; // ms até fechar uma conexão ociosa (0 = sem limite)
+                private Integer maxLifeTime; // ms até fechar uma conexão (0 = sem limite)
+
+                public Integer getMinSize() {
+                    return minSize;
+                }
+
+                public void setMinSize(Integer minSize) {
+                    this.minSize = minSize;
+                }
+
+                public Integer getMaxSize() {
+                    return maxSize;
+                }
+
+                public void setMaxSize(Integer maxSize) {
+                    this.maxSize = maxSize;
+                }
+
+                public Integer getMaxConnecting() {
+                    return maxConnecting;
+                }
+
+                public void setMaxConnecting(Integer maxConnecting) {
+                    this.maxConnecting = maxConnecting;
+                }
+
+                public Integer getMaxWait() {
+                    return maxWait;
+                }
+
+                public void setMaxWait(Integer maxWait) {
+                    this.maxWait = maxWait;
+                }
+
+                public Integer getMaxIdleTime() {
+                    return maxIdleTime;
+                }
+
+                public void setMaxIdleTime(Integer maxIdleTime) {
+                    this.maxIdleTime = maxIdleTime;
+                }
+
+                public Integer getMaxLifeTime() {
+                    return maxLifeTime;
+                }
+
+                public void setMaxLifeTime(Integer maxLifeTime) {
+                    this.maxLifeTime = maxLifeTime;
+                }
+            }
+
+            public static class Commands {
+                private boolean enabled = true;
+                private int slowThreshold = 100; // ms a partir dos quais o comando é registrado como lento
+                private int slowCapacity = 200; // comandos lentos mantidos (os mais antigos são descartados)
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public int getSlowThreshold() {
+                    return slowThreshold;
+                }
+
+                public void setSlowThreshold(int slowThreshold) {
+                    this.slowThreshold = slowThreshold;
+                }
+
+                public int getSlowCapacity() {
+                    return slowCapacity;
+                }
+
+                public void setSlowCapacity(int slowCapacity) {
+                    this.slowCapacity = slowCapacity;
+                }
+            }
+        }
+
+        /**
+         * Exportação em streaming (GET /products/export e /users/export)
+         */
+        public static class Export {
+            private int batchSize = 500; // documentos por lote do cursor
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+        }
+
+        /**
+         * Operações em lote (POST /products/bulk e /products/stock/adjustments)
+         */
+        public static class Bulk {
+            private int batchSize = 500; // operações por bulk write
+            private int maxReportedErrors = 1000; // erros por item detalhados na resposta
+            private int stockParallelism = 8; // ajustes de estoque simultâneos em POST /products/stock/adjustments
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getMaxReportedErrors() {
+                return maxReportedErrors;
+            }
+
+            public void setMaxReportedErrors(int maxReportedErrors) {
+                this.maxReportedErrors = maxReportedErrors;
+            }
+
+            public int getStockParallelism() {
+                return stockParallelism;
+            }
+
+            public void setStockParallelism(int stockParallelism) {
+                this.stockParallelism = stockParallelism;
+            }
+        }
+
+        /**
+         * Migrações de dados executadas na inicialização
+         */
+        public static class Migrations {
+            private boolean enabled = true;
+            private String collection = "_migrations"; // registro das migrações aplicadas
+            private int batchSize = 500;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getCollection() {
+                return collection;
+            }
+
+            public void setCollection(String collection) {
+                this.collection = collection;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+        }
+
         public static class ExternalApi {
             private String baseUrl;
             private int timeout;
@@ -92,8 +401,24 @@ public class AppConfig {
         }
 
         public static class Cache {
-            private int defaultTtl;
+
+            /**
+             * Caches de usuários que usam userTtl quando não há política específica
+             */
+            public static final Set<String> USER_CACHES = Set.of("users", "activeUserSummaries", "userCount");
+
+            private int defaultTtl = 600; // segundos
             private int userTtl;
+            private int refreshThreads = 2;
+            private boolean listenersEnabled = true; // pub/sub de gerações e filtros entre instâncias
+            private Near near = new Near();
+            private Codec codec = new Codec();
+            private SingleFlight singleFlight = new SingleFlight();
+            private Generations generations = new Generations();
+            private Warmup warmup = new Warmup();
+            private Existence existence = new Existence();
+            private ChangeStreams changeStreams = new ChangeStreams();
+            private Map<String, Policy> policies = new HashMap<>();
 
             public int getDefaultTtl() {
                 return defaultTtl;
@@ -110,6 +435,485 @@ public class AppConfig {
             public void setUserTtl(int userTtl) {
                 this.userTtl = userTtl;
             }
+
+            public int getRefreshThreads() {
+                return refreshThreads;
+            }
+
+            public void setRefreshThreads(int refreshThreads) {
+                this.refreshThreads = refreshThreads;
+            }
+
+            public boolean isListenersEnabled() {
+                return listenersEnabled;
+            }
+
+            public void setListenersEnabled(boolean listenersEnabled) {
+                this.listenersEnabled = listenersEnabled;
+            }
+
+            public Near getNear() {
+                return near;
+            }
+
+            public void setNear(Near near) {
+                this.near = near;
+            }
+
+            public Codec getCodec() {
+                return codec;
+            }
+
+            public void setCodec(Codec codec) {
+                this.codec = codec;
+            }
+
+            public SingleFlight getSingleFlight() {
+                return singleFlight;
+            }
+
+            public void setSingleFlight(SingleFlight singleFlight) {
+                this.singleFlight = singleFlight;
+            }
+
+            public Generations getGenerations() {
+                return generations;
+            }
+
+            public void setGenerations(Generations generations) {
+                this.generations = generations;
+            }
+
+            public Warmup getWarmup() {
+                return warmup;
+            }
+
+            public void setWarmup(Warmup warmup) {
+                this.warmup = warmup;
+            }
+
+            public Existence getExistence() {
+                return existence;
+            }
+
+            public void setExistence(Existence existence) {
+                this.existence = existence;
+            }
+
+            public ChangeStreams getChangeStreams() {
+                return changeStreams;
+            }
+
+            public void setChangeStreams(ChangeStreams changeStreams) {
+                this.changeStreams = changeStreams;
+            }
+
+            public Map<String, Policy> getPolicies() {
+                return policies;
+            }
+
+            public void setPolicies(Map<String, Policy> policies) {
+                this.policies = policies;
+            }
+
+            /**
+             * Política efetiva de um cache: valores da política específica,
+             * completados por userTtl/defaultTtl e pelos limites do near cache
+             */
+            public Policy policyFor(String cacheName) {
+                Policy configured = policies.getOrDefault(cacheName, new Policy());
+                Policy effective = new Policy();
+                if (configured.getTtl() != null) {
+                    effective.setTtl(configured.getTtl());
+                } else {
+                    effective.setTtl(USER_CACHES.contains(cacheName) && userTtl > 0 ? userTtl : defaultTtl);
+                }
+                effective.setMaxSize(configured.getMaxSize() != null ? configured.getMaxSize() : near.getMaxEntries());
+                effective.setMaxWeight(configured.getMaxWeight() != null ? configured.getMaxWeight() : near.getMaxWeight());
+                effective.setRefreshAhead(configured.getRefreshAhead());
+                return effective;
+            }
+
+            /**
+             * Política por nome de cache (app.cache.policies.&lt;nome&gt;)
+             */
+            public static class Policy {
+                private Integer ttl; // segundos
+                private Integer maxSize; // entradas no L1
+                private Long maxWeight; // bytes estimados no L1
+                private int refreshAhead; // segundos antes da expiração; 0 desabilita
+
+                public Integer getTtl() {
+                    return ttl;
+                }
+
+                public void setTtl(Integer ttl) {
+                    this.ttl = ttl;
+                }
+
+                public Integer getMaxSize() {
+                    return maxSize;
+                }
+
+                public void setMaxSize(Integer maxSize) {
+                    this.maxSize = maxSize;
+                }
+
+                public Long getMaxWeight() {
+                    return maxWeight;
+                }
+
+                public void setMaxWeight(Long maxWeight) {
+                    this.maxWeight = maxWeight;
+                }
+
+                public int getRefreshAhead() {
+                    return refreshAhead;
+                }
+
+                public void setRefreshAhead(int refreshAhead) {
+                    this.refreshAhead = refreshAhead;
+                }
+            }
+
+            /**
+             * Carga única por chave em caso de ausência no cache (local e entre instâncias)
+             */
+            public static class SingleFlight {
+                private boolean enabled = true;
+                private int leaseTimeout = 10000; // ms
+                private int waitTimeout = 3000; // ms
+                private int pollInterval = 50; // ms
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public int getLeaseTimeout() {
+                    return leaseTimeout;
+                }
+
+                public void setLeaseTimeout(int leaseTimeout) {
+                    this.leaseTimeout = leaseTimeout;
+                }
+
+                public int getWaitTimeout() {
+                    return waitTimeout;
+                }
+
+                public void setWaitTimeout(int waitTimeout) {
+                    this.waitTimeout = waitTimeout;
+                }
+
+                public int getPollInterval() {
+                    return pollInterval;
+                }
+
+                public void setPollInterval(int pollInterval) {
+                    this.pollInterval = pollInterval;
+                }
+            }
+
+            /**
+             * Sincronização dos caches com escritas externas via change streams do MongoDB
+             */
+            public static class ChangeStreams {
+                private boolean enabled = true;
+                private String leaderKey = "changestream:leader";
+                private String resumeTokenKey = "changestream:resume-token";
+                private int leaseTtl = 30; // segundos
+                private int maxAwait = 1000; // ms de espera por eventos a cada leitura do cursor
+                private int retryInterval = 5000; // ms entre tentativas de assumir o stream
+                private int tokenSaveEvents = 100; // eventos entre gravações do resume token
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public String getLeaderKey() {
+                    return leaderKey;
+                }
+
+                public void setLeaderKey(String leaderKey) {
+                    this.leaderKey = leaderKey;
+                }
+
+                public String getResumeTokenKey() {
+                    return resumeTokenKey;
+                }
+
+                public void setResumeTokenKey(String resumeTokenKey) {
+                    this.resumeTokenKey = resumeTokenKey;
+                }
+
+                public int getLeaseTtl() {
+                    return leaseTtl;
+                }
+
+                public void setLeaseTtl(int leaseTtl) {
+                    this.leaseTtl = leaseTtl;
+                }
+
+                public int getMaxAwait() {
+                    return maxAwait;
+                }
+
+                public void setMaxAwait(int maxAwait) {
+                    this.maxAwait = maxAwait;
+                }
+
+                public int getRetryInterval() {
+                    return retryInterval;
+                }
+
+                public void setRetryInterval(int retryInterval) {
+                    this.retryInterval = retryInterval;
+                }
+
+                public int getTokenSaveEvents() {
+                    return tokenSaveEvents;
+                }
+
+                public void setTokenSaveEvents(int tokenSaveEvents) {
+                    this.tokenSaveEvents = tokenSaveEvents;
+                }
+            }
+
+            /**
+             * Filtros de Bloom de IDs e emails existentes (consultas negativas sem Redis/MongoDB)
+             */
+            public static class Existence {
+                private boolean enabled = true;
+                private double falsePositiveRate = 0.01;
+                private int rebuildInterval = 600000; // ms
+                private String channel = "cache:existence";
+                private String recentKey = "existence:recent"; // ZSET por filtro com as adições recentes
+                private int syncInterval = 1000; // ms entre leituras das adições recentes
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public double getFalsePositiveRate() {
+                    return falsePositiveRate;
+                }
+
+                public void setFalsePositiveRate(double falsePositiveRate) {
+                    this.falsePositiveRate = falsePositiveRate;
+                }
+
+                public int getRebuildInterval() {
+                    return rebuildInterval;
+                }
+
+                public void setRebuildInterval(int rebuildInterval) {
+                    this.rebuildInterval = rebuildInterval;
+                }
+
+                public String getChannel() {
+                    return channel;
+                }
+
+                public void setChannel(String channel) {
+                    this.channel = channel;
+                }
+
+                public String getRecentKey() {
+                    return recentKey;
+                }
+
+                public void setRecentKey(String recentKey) {
+                    this.recentKey = recentKey;
+                }
+
+                public int getSyncInterval() {
+                    return syncInterval;
+                }
+
+                public void setSyncInterval(int syncInterval) {
+                    this.syncInterval = syncInterval;
+                }
+            }
+
+            /**
+             * Aquecimento dos caches mais acessados na inicialização
+             */
+            public static class Warmup {
+                private boolean enabled = true;
+                private int parallelism = 4;
+                private int timeout = 120; // segundos
+                private int hotProducts = 200; // produtos mais lidos pré-carregados
+                private String hotKey = "hot:products";
+                private int hotKeyMaxTracked = 1000;
+                private int hotKeyFlushInterval = 10000; // ms
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public int getParallelism() {
+                    return parallelism;
+                }
+
+                public void setParallelism(int parallelism) {
+                    this.parallelism = parallelism;
+                }
+
+                public int getTimeout() {
+                    return timeout;
+                }
+
+                public void setTimeout(int timeout) {
+                    this.timeout = timeout;
+                }
+
+                public int getHotProducts() {
+                    return hotProducts;
+                }
+
+                public void setHotProducts(int hotProducts) {
+                    this.hotProducts = hotProducts;
+                }
+
+                public String getHotKey() {
+                    return hotKey;
+                }
+
+                public void setHotKey(String hotKey) {
+                    this.hotKey = hotKey;
+                }
+
+                public int getHotKeyMaxTracked() {
+                    return hotKeyMaxTracked;
+                }
+
+                public void setHotKeyMaxTracked(int hotKeyMaxTracked) {
+                    this.hotKeyMaxTracked = hotKeyMaxTracked;
+                }
+
+                public int getHotKeyFlushInterval() {
+                    return hotKeyFlushInterval;
+                }
+
+                public void setHotKeyFlushInterval(int hotKeyFlushInterval) {
+                    this.hotKeyFlushInterval = hotKeyFlushInterval;
+                }
+            }
+
+            /**
+             * Contadores de geração usados nas chaves dos caches de listas e contagens
+             */
+            public static class Generations {
+                private int localTtl = 2; // segundos; 0 consulta o Redis a cada leitura
+                private String channel = "cache:generations";
+
+                public int getLocalTtl() {
+                    return localTtl;
+                }
+
+                public void setLocalTtl(int localTtl) {
+                    this.localTtl = localTtl;
+                }
+
+                public String getChannel() {
+                    return channel;
+                }
+
+                public void setChannel(String channel) {
+                    this.channel = channel;
+                }
+            }
+
+            /**
+             * Codec dos valores gravados no Redis
+             */
+            public static class Codec {
+                private CompactCacheSerializer.Format format = CompactCacheSerializer.Format.BINARY;
+                private boolean readLegacyJson = true; // migração: ainda lê entradas JSON antigas
+
+                public CompactCacheSerializer.Format getFormat() {
+                    return format;
+                }
+
+                public void setFormat(CompactCacheSerializer.Format format) {
+                    this.format = format;
+                }
+
+                public boolean isReadLegacyJson() {
+                    return readLegacyJson;
+                }
+
+                public void setReadLegacyJson(boolean readLegacyJson) {
+                    this.readLegacyJson = readLegacyJson;
+                }
+            }
+
+            /**
+             * Cache local (L1) em memória na frente do Redis
+             */
+            public static class Near {
+                private boolean enabled = true;
+                private int maxEntries = 10000;
+                private long maxWeight = 4 * 1024 * 1024; // bytes estimados por cache sem política própria
+                private int ttl = 60; // segundos
+                private String channel = "cache:invalidation";
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public int getMaxEntries() {
+                    return maxEntries;
+                }
+
+                public void setMaxEntries(int maxEntries) {
+                    this.maxEntries = maxEntries;
+                }
+
+                public long getMaxWeight() {
+                    return maxWeight;
+                }
+
+                public void setMaxWeight(long maxWeight) {
+                    this.maxWeight = maxWeight;
+                }
+
+                public int getTtl() {
+                    return ttl;
+                }
+
+                public void setTtl(int ttl) {
+                    this.ttl = ttl;
+                }
+
+                public String getChannel() {
+                    return channel;
+                }
+
+                public void setChannel(String channel) {
+                    this.channel = channel;
+                }
+            }
         }
     }
 }
@@ -1,9 +1,32 @@
 package com.example.app.config;
 
+import com.example.app.config.AppConfig.AppProperties;
+import com.example.app.monitoring.MongoCommandMetrics;
+import com.example.app.monitoring.MongoPoolWaitMetrics;
+import com.example.app.repository.ReadRouting;
+import com.example.app.repository.ReadRoutingInterceptor;
+import com.example.app.repository.RoutingMongoTemplate;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 import org.springframework.data.mongodb.core.mapping.event.ValidatingMongoEventListener;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
@@ -11,22 +34,131 @@ import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuração do MongoDB
  * 
  * Esta classe configura:
+ * - Cliente a partir de spring.data.mongodb.uri (banco incluído) e de app.mongo
  * - Conversores customizados
  * - Validação de entidades
  * - Auditoria automática
+ * - Métricas dos comandos por método de repositório e do pool de conexões
+ * - Leituras em secundários para os métodos marcados com @ReadRouting
  */
 @Configuration
 public class MongoConfig extends AbstractMongoClientConfiguration {
 
+    private static final String DEFAULT_DATABASE = "springboot_db";
+
+    @Value("${spring.data.mongodb.uri}")
+    private String uri;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Banco da URI (mongodb://host:27017/banco), ou springboot_db quando a URI não o define
+     */
     @Override
     protected String getDatabaseName() {
-        return "springboot_db";
+        String database = new ConnectionString(uri).getDatabase();
+        return database != null ? database : DEFAULT_DATABASE;
+    }
+
+    @Override
+    protected void configureClientSettings(MongoClientSettings.Builder builder) {
+        mongoClientSettingsCustomizer().customize(builder);
+    }
+
+    /**
+     * Configurações do cliente (também aplicadas ao cliente reativo)
+     *
+     * As propriedades de app.mongo são aplicadas antes da URI, de modo que opções
+     * passadas na URI (maxPoolSize, socketTimeoutMS, compressors...) prevalecem.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientSettingsCustomizer() {
+        AppProperties.Mongo mongo = appProperties.getMongo();
+        return builder -> {
+            AppProperties.Mongo.Pool pool = mongo.getPool();
+            builder.applyToConnectionPoolSettings(settings -> {
+                if (pool.getMinSize() != null) {
+                    settings.minSize(pool.getMinSize());
+                }
+                if (pool.getMaxSize() != null) {
+                    settings.maxSize(pool.getMaxSize());
+                }
+                if (pool.getMaxConnecting() != null) {
+                    settings.maxConnecting(pool.getMaxConnecting());
+                }
+                if (pool.getMaxWait() != null) {
+                    settings.maxWaitTime(pool.getMaxWait(), TimeUnit.MILLISECONDS);
+                }
+                if (pool.getMaxIdleTime() != null) {
+                    settings.maxConnectionIdleTime(pool.getMaxIdleTime(), TimeUnit.MILLISECONDS);
+                }
+                if (pool.getMaxLifeTime() != null) {
+                    settings.maxConnectionLifeTime(pool.getMaxLifeTime(), TimeUnit.MILLISECONDS);
+                }
+                settings.addConnectionPoolListener(new MongoMetricsConnectionPoolListener(meterRegistry));
+                settings.addConnectionPoolListener(new MongoPoolWaitMetrics(meterRegistry));
+            });
+            builder.applyToSocketSettings(settings -> {
+                if (mongo.getConnectTimeout() != null) {
+                    settings.connectTimeout(mongo.getConnectTimeout(), TimeUnit.MILLISECONDS);
+                }
+                if (mongo.getSocketTimeout() != null) {
+                    settings.readTimeout(mongo.getSocketTimeout(), TimeUnit.MILLISECONDS);
+                }
+            });
+            if (mongo.getServerSelectionTimeout() != null) {
+                builder.applyToClusterSettings(settings ->
+                        settings.serverSelectionTimeout(mongo.getServerSelectionTimeout(), TimeUnit.MILLISECONDS));
+            }
+            if (!mongo.getCompressors().isEmpty()) {
+                builder.compressorList(mongo.getCompressors().stream().map(MongoConfig::compressor).toList());
+            }
+            builder.applyConnectionString(new ConnectionString(uri));
+            if (mongo.getCommands().isEnabled()) {
+                builder.addCommandListener(mongoCommandMetrics());
+            }
+        };
+    }
+
+    /**
+     * MongoTemplate que aplica a preferência de leitura dos métodos marcados com @ReadRouting
+     */
+    @Bean
+    @Override
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory databaseFactory, MappingMongoConverter converter) {
+        return new RoutingMongoTemplate(databaseFactory, converter);
+    }
+
+    /**
+     * Intercepta os métodos marcados com @ReadRouting em repositórios e serviços
+     * (aplicado pelo mesmo auto-proxy do cache)
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor readRoutingAdvisor(ObjectProvider<AppProperties> appProperties) {
+        return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(null, ReadRouting.class, true),
+                new ReadRoutingInterceptor(appProperties));
+    }
+
+    /**
+     * Métricas e registro dos comandos lentos (também usado pelo cliente reativo)
+     */
+    @Bean
+    public MongoCommandMetrics mongoCommandMetrics() {
+        return new MongoCommandMetrics(meterRegistry, appProperties);
     }
 
     /**
@@ -63,6 +195,15 @@ public class MongoConfig extends AbstractMongoClientConfiguration {
         return () -> Optional.of("system"); // Em produção, pegar do contexto de segurança
     }
 
+    private static MongoCompressor compressor(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "zstd" -> MongoCompressor.createZstdCompressor();
+            case "snappy" -> MongoCompressor.createSnappyCompressor();
+            case "zlib" -> MongoCompressor.createZlibCompressor();
+            default -> throw new IllegalArgumentException("Compressor do MongoDB desconhecido: " + name);
+        };
+    }
+
     /**
      * Converter para leitura de ZonedDateTime
      */
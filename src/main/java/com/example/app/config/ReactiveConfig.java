@@ -0,0 +1,72 @@
+package com.example.app.config;
+
+import com.example.app.cache.ReactiveCacheLookup;
+import com.example.app.repository.ProductRepository;
+import com.example.app.repository.ReactiveProductRepository;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Configuração do perfil reactive
+ *
+ * Esta classe configura:
+ * - Netty como servidor (em vez do Tomcat, que também está no classpath)
+ * - Cliente MongoDB reativo no mesmo banco e com as mesmas configurações e conversores do cliente bloqueante
+ * - Repositórios reativos (os bloqueantes passam a ser habilitados aqui, pois a
+ *   auto-configuração deles recua quando há repositórios reativos)
+ * - Leitura reativa dos caches
+ */
+@Configuration
+@Profile("reactive")
+@EnableMongoRepositories(basePackageClasses = ProductRepository.class)
+@EnableReactiveMongoRepositories(basePackageClasses = ReactiveProductRepository.class)
+public class ReactiveConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory reactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public MongoClient reactiveMongoClient(MongoClientSettingsBuilderCustomizer mongoClientSettingsCustomizer) {
+        MongoClientSettings.Builder settings = MongoClientSettings.builder();
+        mongoClientSettingsCustomizer.customize(settings);
+        return MongoClients.create(settings.build());
+    }
+
+    @Bean
+    public ReactiveMongoDatabaseFactory reactiveMongoDatabaseFactory(MongoClient reactiveMongoClient,
+                                                                     MongoDatabaseFactory mongoDatabaseFactory) {
+        return new SimpleReactiveMongoDatabaseFactory(reactiveMongoClient,
+                mongoDatabaseFactory.getMongoDatabase().getName());
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(ReactiveMongoDatabaseFactory reactiveMongoDatabaseFactory,
+                                                       MongoConverter mongoConverter) {
+        return new ReactiveMongoTemplate(reactiveMongoDatabaseFactory, mongoConverter);
+    }
+
+    @Bean
+    public ReactiveCacheLookup reactiveCacheLookup(CacheManager cacheManager,
+                                                   ReactiveRedisConnectionFactory connectionFactory,
+                                                   RedisSerializer<Object> cacheValueSerializer) {
+        return new ReactiveCacheLookup(cacheManager, connectionFactory, cacheValueSerializer);
+    }
+}
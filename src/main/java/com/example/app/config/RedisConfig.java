@@ -1,35 +1,61 @@
 package com.example.app.config;
 
+import com.example.app.cache.CacheGenerations;
+import com.example.app.cache.CacheInvalidationListener;
+import com.example.app.cache.CacheInvalidationPublisher;
+import com.example.app.cache.ExistenceFilters;
+import com.example.app.cache.CompactCacheSerializer;
+import com.example.app.cache.TwoLevelCacheManager;
+import com.example.app.config.AppConfig.AppProperties;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Configuração do Redis
  * 
  * Esta classe configura:
  * - RedisTemplate para operações manuais
- * - CacheManager para cache automático
+ * - CacheManager para cache automático (L1 local + L2 Redis)
+ * - Invalidação do L1 entre instâncias via Redis pub/sub
  * - Serialização JSON para objetos
  */
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
+    @Autowired
+    private AppProperties appProperties;
+
     /**
      * Configuração do RedisTemplate para operações manuais com Redis
      */
@@ -60,24 +86,122 @@ public class RedisConfig {
 
     /**
      * Configuração do CacheManager para cache automático
+     *
+     * O TTL de cada cache vem de app.cache.policies (ou de default-ttl/user-ttl).
+     * Com o near cache habilitado, um L1 local limitado fica na frente do Redis
+     * e evita a ida à rede e a desserialização nas leituras mais quentes.
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CacheInvalidationPublisher cacheInvalidationPublisher,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     RedisSerializer<Object> cacheValueSerializer,
+                                     MeterRegistry meterRegistry) {
+        AppProperties.Cache cacheProperties = appProperties.getCache();
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10)) // TTL padrão de 10 minutos
+                .entryTtl(Duration.ofSeconds(cacheProperties.getDefaultTtl()))
                 .serializeKeysWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
                         .fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
-                        .fromSerializer(createJsonRedisSerializer()))
+                        .fromSerializer(cacheValueSerializer))
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        Set<String> configuredCaches = new HashSet<>(cacheProperties.getPolicies().keySet());
+        configuredCaches.addAll(AppProperties.Cache.USER_CACHES);
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        for (String cacheName : configuredCaches) {
+            cacheConfigurations.put(cacheName,
+                    config.entryTtl(Duration.ofSeconds(cacheProperties.policyFor(cacheName).getTtl())));
+        }
+
+        // Limpeza de caches (allEntries / clear) via SCAN em lotes em vez de KEYS
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory,
+                BatchStrategies.scan(1000));
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(config)
+                .withInitialCacheConfigurations(cacheConfigurations)
+                .enableStatistics()
                 .build();
+
+        if (!cacheProperties.getNear().isEnabled()) {
+            // Estatísticas do RedisCache publicadas pelas métricas de cache do Actuator
+            return redisCacheManager;
+        }
+
+        redisCacheManager.initializeCaches();
+        return new TwoLevelCacheManager(redisCacheManager, cacheProperties, cacheInvalidationPublisher,
+                stringRedisTemplate, meterRegistry);
+    }
+
+    /**
+     * Publicador de invalidações do cache local
+     */
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate) {
+        return new CacheInvalidationPublisher(stringRedisTemplate, new ObjectMapper(),
+                appProperties.getCache().getNear().getChannel());
+    }
+
+    /**
+     * Gerações dos caches de listas e contagens (referenciadas nas chaves como @cacheGenerations)
+     */
+    @Bean
+    public CacheGenerations cacheGenerations(StringRedisTemplate stringRedisTemplate,
+                                             ReactiveStringRedisTemplate reactiveStringRedisTemplate) {
+        AppProperties.Cache.Generations generations = appProperties.getCache().getGenerations();
+        return new CacheGenerations(stringRedisTemplate, reactiveStringRedisTemplate, generations.getChannel(),
+                Duration.ofSeconds(generations.getLocalTtl()));
+    }
+
+    /**
+     * Container pub/sub que recebe as invalidações do L1 vindas das demais instâncias
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.near", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           CacheManager cacheManager,
+                                                                           CacheInvalidationPublisher cacheInvalidationPublisher) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            container.addMessageListener(
+                    new CacheInvalidationListener(twoLevelCacheManager, cacheInvalidationPublisher),
+                    new ChannelTopic(cacheInvalidationPublisher.getChannel()));
+        }
+        return container;
+    }
+
+    /**
+     * Container pub/sub que recebe incrementos de geração e adições aos filtros de existência
+     * vindos das demais instâncias (independe do L1)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache", name = "listeners-enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheCoordinationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           CacheGenerations cacheGenerations,
+                                                                           ExistenceFilters existenceFilters) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> cacheGenerations.onBump(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(cacheGenerations.getChannel()));
+        container.addMessageListener(
+                (message, pattern) -> existenceFilters.onRemoteAdd(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(existenceFilters.getChannel()));
+        return container;
+    }
+
+    /**
+     * Serializer dos valores do cache: codec binário compacto com leitura do JSON legado
+     */
+    @Bean
+    public RedisSerializer<Object> cacheValueSerializer() {
+        AppProperties.Cache.Codec codec = appProperties.getCache().getCodec();
+        return new CompactCacheSerializer(createJsonRedisSerializer(), codec.getFormat(), codec.isReadLegacyJson());
     }
 
     /**
-     * Criar serializer JSON para cache
+     * Criar serializer JSON para cache (formato legado, usado também como fallback do codec binário)
      */
     private Jackson2JsonRedisSerializer<Object> createJsonRedisSerializer() {
         Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(Object.class);
@@ -1,18 +1,29 @@
 package com.example.app.controller;
 
+import com.example.app.cache.RedisKeyScanner;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -26,12 +37,19 @@ public class CacheController {
 
     private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
 
+    private static final int MAX_COUNT = 1000;
+    private static final int MAX_SAMPLE = 1000;
+    private static final long MAX_STREAM_LIMIT = 1_000_000;
+
     @Autowired
     private CacheManager cacheManager;
 
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired
+    private RedisKeyScanner redisKeyScanner;
+
     @Operation(summary = "Listar caches disponíveis", description = "Retorna lista de todos os caches configurados")
     @ApiResponse(responseCode = "200", description = "Lista de caches")
     @GetMapping("/names")
@@ -78,10 +96,13 @@ public class CacheController {
         return ResponseEntity.ok("Todos os caches limpos com sucesso");
     }
 
-    @Operation(summary = "Obter estatísticas do Redis", description = "Retorna informações e estatísticas do Redis")
+    @Operation(summary = "Obter estatísticas do Redis",
+            description = "Retorna informações do Redis e estimativas por amostragem (chaves por prefixo e memória)")
     @ApiResponse(responseCode = "200", description = "Estatísticas do Redis")
     @GetMapping("/redis/stats")
-    public ResponseEntity<Map<String, Object>> getRedisStats() {
+    public ResponseEntity<Map<String, Object>> getRedisStats(
+            @Parameter(description = "Quantidade de chaves aleatórias amostradas")
+            @RequestParam(defaultValue = "200") int sample) {
         logger.info("Obtendo estatísticas do Redis");
         
         Map<String, Object> stats = new HashMap<>();
@@ -90,15 +111,18 @@ public class CacheController {
             // Informações básicas do Redis
             var connection = redisTemplate.getConnectionFactory().getConnection();
             var info = connection.info();
+            connection.close();
             
             stats.put("connected", true);
             stats.put("info", info.toString());
             
-            // Número de chaves
-            Set<String> keys = redisTemplate.keys("*");
-            stats.put("totalKeys", keys != null ? keys.size() : 0);
-            
-            connection.close();
+            // Número de chaves (DBSIZE) e estimativas por amostragem, sem percorrer o keyspace
+            RedisKeyScanner.KeyspaceSample keyspace = redisKeyScanner.sample(Math.min(sample, MAX_SAMPLE));
+            stats.put("totalKeys", keyspace.totalKeys());
+            stats.put("sampledKeys", keyspace.sampledKeys());
+            stats.put("averageKeyBytes", keyspace.averageKeyBytes());
+            stats.put("estimatedMemoryBytes", keyspace.estimatedMemoryBytes());
+            stats.put("estimatedKeysByPrefix", keyspace.estimatedKeysByPrefix());
             
         } catch (Exception e) {
             logger.error("Erro ao obter estatísticas do Redis: {}", e.getMessage());
@@ -109,22 +133,66 @@ public class CacheController {
         return ResponseEntity.ok(stats);
     }
 
-    @Operation(summary = "Listar chaves do Redis", description = "Retorna todas as chaves armazenadas no Redis")
-    @ApiResponse(responseCode = "200", description = "Lista de chaves do Redis")
+    @Operation(summary = "Listar chaves do Redis",
+            description = "Retorna uma página de chaves via SCAN; use o cursor retornado para a próxima página")
+    @ApiResponse(responseCode = "200", description = "Página de chaves do Redis")
     @GetMapping("/redis/keys")
-    public ResponseEntity<Set<String>> getRedisKeys(
+    public ResponseEntity<RedisKeyScanner.ScanPage> getRedisKeys(
             @Parameter(description = "Padrão para filtrar chaves (opcional)")
-            @RequestParam(defaultValue = "*") String pattern) {
+            @RequestParam(defaultValue = "*") String pattern,
+            @Parameter(description = "Cursor retornado pela página anterior (0 inicia a varredura)")
+            @RequestParam(defaultValue = "0") String cursor,
+            @Parameter(description = "Quantidade aproximada de chaves por página")
+            @RequestParam(defaultValue = "100") int count) {
         
-        logger.info("Listando chaves do Redis com padrão: {}", pattern);
+        logger.info("Listando chaves do Redis com padrão: {} (cursor {})", pattern, cursor);
         
         try {
-            Set<String> keys = redisTemplate.keys(pattern);
-            return ResponseEntity.ok(keys != null ? keys : Set.of());
+            return ResponseEntity.ok(redisKeyScanner.scan(cursor, pattern, Math.min(Math.max(count, 1), MAX_COUNT)));
         } catch (Exception e) {
             logger.error("Erro ao listar chaves do Redis: {}", e.getMessage());
-            return ResponseEntity.ok(Set.of());
+            return ResponseEntity.ok(new RedisKeyScanner.ScanPage("0", true, List.of()));
+        }
+    }
+
+    @Operation(summary = "Exportar chaves do Redis",
+            description = "Transmite as chaves do padrão, uma por linha, percorrendo o keyspace via SCAN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Chaves do Redis, uma por linha"),
+            @ApiResponse(responseCode = "400", description = "Limite menor que 1")
+    })
+    @GetMapping(value = "/redis/keys/stream", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRedisKeys(
+            @Parameter(description = "Padrão para filtrar chaves (opcional)")
+            @RequestParam(defaultValue = "*") String pattern,
+            @Parameter(description = "Quantidade aproximada de chaves por chamada SCAN")
+            @RequestParam(defaultValue = "500") int count,
+            @Parameter(description = "Quantidade máxima de chaves retornadas (até " + MAX_STREAM_LIMIT + ")")
+            @RequestParam(defaultValue = "100000") long limit) {
+        
+        logger.info("Exportando chaves do Redis com padrão: {}", pattern);
+        
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
         }
+        int scanCount = Math.min(Math.max(count, 1), MAX_COUNT);
+        long maxKeys = Math.min(limit, MAX_STREAM_LIMIT);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            redisKeyScanner.scanAll(pattern, scanCount, maxKeys, keys -> {
+                try {
+                    for (String key : keys) {
+                        writer.write(key);
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(body);
     }
 
     @Operation(summary = "Obter valor do Redis", description = "Retorna o valor de uma chave específica do Redis")
@@ -1,6 +1,15 @@
 package com.example.app.controller;
 
+import com.example.app.cache.HotKeyTracker;
+import com.example.app.dto.BulkUpsertResult;
+import com.example.app.dto.CatalogFacets;
+import com.example.app.dto.ProductSummary;
+import com.example.app.dto.StockAdjustment;
+import com.example.app.dto.StockAdjustmentResult;
 import com.example.app.entity.Product;
+import com.example.app.repository.CursorPage;
+import com.example.app.service.ExportService;
+import com.example.app.service.ProductIngestService;
 import com.example.app.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,35 +18,58 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Controller REST para operações com produtos
+ *
+ * Desativado no perfil reactive, em que as leituras ficam no ReactiveProductController
  */
 @RestController
 @RequestMapping("/products")
+@Profile("!reactive")
 @Tag(name = "Products", description = "API para gerenciamento de produtos")
 public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductIngestService productIngestService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
     @Operation(summary = "Criar novo produto", description = "Cria um novo produto no sistema")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Produto criado com sucesso",
@@ -68,23 +100,72 @@ public class ProductController {
         
         logger.info("Buscando produto por ID: {}", id);
         
+        if (!productService.mightExist(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        hotKeyTracker.record(id);
         Optional<Product> product = productService.findById(id);
         return product.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Listar produtos disponíveis", description = "Retorna lista de todos os produtos disponíveis")
+    @Operation(summary = "Buscar produtos em lote",
+            description = "Retorna os produtos dos IDs informados, na ordem da requisição (IDs inexistentes são omitidos)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produtos encontrados"),
+            @ApiResponse(responseCode = "400", description = "Lote acima do tamanho máximo")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<Product>> getProductsByIds(
+            @Parameter(description = "IDs dos produtos (máximo " + MAX_BATCH_SIZE + ")", required = true)
+            @RequestBody List<String> ids) {
+        
+        logger.info("Buscando produtos em lote: {} IDs", ids.size());
+        
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        // Só IDs encontrados contam como chaves quentes (inexistentes não vão para o aquecimento)
+        List<Product> products = productService.findAllById(ids);
+        products.forEach(product -> hotKeyTracker.record(product.getId()));
+        return ResponseEntity.ok(products);
+    }
+
+    @Operation(summary = "Inserir ou substituir produtos em lote",
+            description = "Recebe um array JSON de produtos, lido como stream e gravado em bulk writes não ordenados. "
+                    + "Itens com ID substituem o produto existente (ou o criam); itens sem ID são criados. "
+                    + "Itens inválidos são rejeitados individualmente e listados na resposta")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado da ingestão, com os erros por item",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkUpsertResult.class))),
+            @ApiResponse(responseCode = "400", description = "Corpo não é um array JSON")
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkUpsertResult> bulkUpsertProducts(HttpServletRequest request) throws IOException {
+        logger.info("Iniciando ingestão em lote de produtos");
+
+        try {
+            return ResponseEntity.ok(productIngestService.upsertProducts(request.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ingestão em lote rejeitada: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Listar produtos disponíveis", description = "Retorna o resumo de todos os produtos disponíveis")
     @ApiResponse(responseCode = "200", description = "Lista de produtos",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Product.class)))
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductSummary.class)))
     @GetMapping
-    public ResponseEntity<List<Product>> getAvailableProducts() {
+    public ResponseEntity<List<ProductSummary>> getAvailableProducts() {
         logger.info("Listando produtos disponíveis");
         
-        List<Product> products = productService.findAvailableProducts();
+        List<ProductSummary> products = productService.findAvailableProductSummaries();
         return ResponseEntity.ok(products);
     }
 
-    @Operation(summary = "Listar produtos com paginação", description = "Retorna lista paginada de produtos disponíveis")
+    @Operation(summary = "Listar produtos com paginação", description = "Retorna lista paginada de produtos disponíveis (para páginas profundas use /products/cursor)")
     @ApiResponse(responseCode = "200", description = "Página de produtos")
     @GetMapping("/page")
     public ResponseEntity<Page<Product>> getAvailableProductsWithPagination(
@@ -109,16 +190,73 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
-    @Operation(summary = "Buscar produtos por categoria", description = "Retorna produtos de uma categoria específica")
+    @Operation(summary = "Listar produtos por cursor",
+            description = "Paginação por cursor (keyset) de produtos disponíveis: custo constante em qualquer profundidade e sem contagem. "
+                    + "Envie o nextCursor da resposta para obter a página seguinte")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de produtos"),
+            @ApiResponse(responseCode = "400", description = "Cursor, ordenação ou tamanho inválido")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<Product>> getAvailableProductsWithCursor(
+            @Parameter(description = "Cursor retornado pela página anterior (vazio na primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máximo " + MAX_CURSOR_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Campo para ordenação (name, createdDate ou price)")
+            @RequestParam(defaultValue = "name") String sortBy,
+            @Parameter(description = "Direção da ordenação (asc/desc)")
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        logger.info("Listando produtos por cursor: size={}, sortBy={}", size, sortBy);
+
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        try {
+            return ResponseEntity.ok(productService.findAvailableProducts(cursor, sortBy, direction, size));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Listagem por cursor inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Exportar produtos em NDJSON",
+            description = "Escreve um produto JSON por linha, lido de um cursor do Mongo em lotes e sem cache: "
+                    + "memória constante qualquer que seja o tamanho do catálogo. Todos os filtros são opcionais")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produtos em NDJSON",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)),
+            @ApiResponse(responseCode = "400", description = "Filtro inválido")
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportProducts(
+            @Parameter(description = "Categoria")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Disponibilidade")
+            @RequestParam(required = false) Boolean available,
+            @Parameter(description = "Apenas produtos modificados a partir deste instante (ISO-8601, ex.: 2024-01-01T00:00:00Z)")
+            @RequestParam(required = false) Instant modifiedSince,
+            HttpServletResponse response) throws IOException {
+
+        logger.info("Exportando produtos: category={}, available={}, modifiedSince={}", category, available, modifiedSince);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        exportService.exportProducts(category, available, modifiedSince, response.getOutputStream());
+    }
+
+    @Operation(summary = "Buscar produtos por categoria", description = "Retorna o resumo dos produtos de uma categoria específica")
     @ApiResponse(responseCode = "200", description = "Lista de produtos da categoria")
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getProductsByCategory(
+    public ResponseEntity<List<ProductSummary>> getProductsByCategory(
             @Parameter(description = "Nome da categoria", required = true)
             @PathVariable String category) {
         
         logger.info("Buscando produtos por categoria: {}", category);
         
-        List<Product> products = productService.findByCategory(category);
+        List<ProductSummary> products = productService.findSummariesByCategory(category);
         return ResponseEntity.ok(products);
     }
 
@@ -154,8 +292,11 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
-    @Operation(summary = "Buscar produtos por faixa de preço", description = "Retorna produtos dentro de uma faixa de preço")
-    @ApiResponse(responseCode = "200", description = "Lista de produtos na faixa de preço")
+    @Operation(summary = "Buscar produtos por faixa de preço", description = "Retorna os produtos disponíveis dentro de uma faixa de preço (limites inclusivos), ordenados por preço")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de produtos na faixa de preço"),
+            @ApiResponse(responseCode = "400", description = "Limite negativo ou mínimo maior que o máximo")
+    })
     @GetMapping("/price-range")
     public ResponseEntity<List<Product>> getProductsByPriceRange(
             @Parameter(description = "Preço mínimo", required = true)
@@ -165,8 +306,12 @@ public class ProductController {
         
         logger.info("Buscando produtos por faixa de preço: {} - {}", minPrice, maxPrice);
         
-        List<Product> products = productService.findByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(products);
+        try {
+            return ResponseEntity.ok(productService.findByPriceRange(minPrice, maxPrice));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Faixa de preço inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @Operation(summary = "Buscar produtos por tag", description = "Retorna produtos que contenham uma tag específica")
@@ -195,12 +340,13 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
-    @Operation(summary = "Atualizar produto", description = "Atualiza os dados de um produto existente")
+    @Operation(summary = "Atualizar produto", description = "Atualiza os dados de um produto existente; com o campo version, só aplica se a versão ainda for a atual")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto atualizado com sucesso",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = Product.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos"),
-            @ApiResponse(responseCode = "404", description = "Produto não encontrado")
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Versão desatualizada: o produto foi alterado por outra escrita")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProduct(
@@ -218,6 +364,9 @@ public class ProductController {
         } catch (IllegalArgumentException e) {
             logger.warn("Erro ao atualizar produto: {}", e.getMessage());
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Conflito ao atualizar produto {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
@@ -244,6 +393,63 @@ public class ProductController {
         }
     }
 
+    @Operation(summary = "Ajustar estoque do produto",
+            description = "Soma delta ao estoque de forma atômica (negativo para baixa), desde que o resultado fique entre floor e ceiling")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estoque ajustado"),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "409", description = "O ajuste violaria o limite de estoque")
+    })
+    @PatchMapping("/{id}/stock/adjust")
+    public ResponseEntity<Product> adjustProductStock(
+            @Parameter(description = "ID do produto", required = true)
+            @PathVariable String id,
+            @Parameter(description = "Quantidade a somar ao estoque (negativa para baixa)", required = true)
+            @RequestParam int delta,
+            @Parameter(description = "Estoque mínimo após o ajuste")
+            @RequestParam(defaultValue = "0") Integer floor,
+            @Parameter(description = "Estoque máximo após o ajuste (sem limite se omitido)")
+            @RequestParam(required = false) Integer ceiling) {
+
+        logger.info("Ajustando estoque do produto: {} em {}", id, delta);
+
+        try {
+            return ResponseEntity.ok(productService.adjustStock(id, delta, floor, ceiling));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Erro ao ajustar estoque: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            logger.warn("Ajuste de estoque recusado: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @Operation(summary = "Ajustar estoque de vários produtos",
+            description = "Aplica ajustes atômicos de estoque a vários produtos; cada item informa se foi aplicado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por produto"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio, acima do tamanho máximo ou com itens incompletos")
+    })
+    @PostMapping("/stock/adjustments")
+    public ResponseEntity<List<StockAdjustmentResult>> adjustProductStocks(
+            @Parameter(description = "Ajustes (máximo " + MAX_BATCH_SIZE + ")", required = true)
+            @RequestBody List<StockAdjustment> adjustments,
+            @Parameter(description = "Estoque mínimo após cada ajuste")
+            @RequestParam(defaultValue = "0") Integer floor,
+            @Parameter(description = "Estoque máximo após cada ajuste (sem limite se omitido)")
+            @RequestParam(required = false) Integer ceiling) {
+
+        logger.info("Ajustando estoque em lote: {} itens", adjustments.size());
+
+        boolean incomplete = adjustments.stream()
+                .anyMatch(adjustment -> adjustment == null || adjustment.getProductId() == null || adjustment.getDelta() == null);
+        if (adjustments.isEmpty() || adjustments.size() > MAX_BATCH_SIZE || incomplete) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(productService.adjustStocks(adjustments, floor, ceiling));
+    }
+
     @Operation(summary = "Desativar produto", description = "Desativa um produto (soft delete)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto desativado com sucesso"),
@@ -309,6 +515,17 @@ public class ProductController {
         return ResponseEntity.ok(count);
     }
 
+    @Operation(summary = "Facetas do catálogo",
+            description = "Categorias e tags com contagens, faixas de preço dos produtos disponíveis e contagens por disponibilidade")
+    @ApiResponse(responseCode = "200", description = "Facetas do catálogo",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = CatalogFacets.class)))
+    @GetMapping("/facets")
+    public ResponseEntity<CatalogFacets> getCatalogFacets() {
+        logger.info("Buscando facetas do catálogo");
+
+        return ResponseEntity.ok(productService.getCatalogFacets());
+    }
+
     @Operation(summary = "Limpar cache de produtos", description = "Remove todos os dados de produtos do cache Redis")
     @ApiResponse(responseCode = "200", description = "Cache limpo com sucesso")
     @PostMapping("/clear-cache")
@@ -0,0 +1,75 @@
+package com.example.app.controller;
+
+import com.example.app.cache.HotKeyTracker;
+import com.example.app.dto.ProductSummary;
+import com.example.app.entity.Product;
+import com.example.app.service.ReactiveProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Controller WebFlux com as leituras de produtos (perfil reactive)
+ *
+ * Atende os mesmos caminhos e respostas do ProductController, que fica
+ * desativado neste perfil.
+ */
+@RestController
+@RequestMapping("/products")
+@Profile("reactive")
+@Tag(name = "Products", description = "API para gerenciamento de produtos")
+public class ReactiveProductController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveProductController.class);
+
+    @Autowired
+    private ReactiveProductService productService;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Operation(summary = "Buscar produto por ID", description = "Retorna um produto específico pelo ID")
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Product>> getProductById(
+            @Parameter(description = "ID do produto", required = true)
+            @PathVariable String id) {
+
+        logger.info("Buscando produto por ID: {}", id);
+
+        hotKeyTracker.record(id);
+        return productService.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Listar produtos disponíveis", description = "Retorna o resumo de todos os produtos disponíveis")
+    @GetMapping
+    public Mono<ResponseEntity<List<ProductSummary>>> getAvailableProducts() {
+        logger.info("Listando produtos disponíveis");
+
+        return productService.findAvailableProductSummaries().map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Buscar produtos por categoria", description = "Retorna o resumo dos produtos de uma categoria específica")
+    @GetMapping("/category/{category}")
+    public Mono<ResponseEntity<List<ProductSummary>>> getProductsByCategory(
+            @Parameter(description = "Nome da categoria", required = true)
+            @PathVariable String category) {
+
+        logger.info("Buscando produtos por categoria: {}", category);
+
+        return productService.findSummariesByCategory(category).map(ResponseEntity::ok);
+    }
+}
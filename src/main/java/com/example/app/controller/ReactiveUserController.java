@@ -0,0 +1,59 @@
+package com.example.app.controller;
+
+import com.example.app.dto.UserSummary;
+import com.example.app.entity.User;
+import com.example.app.service.ReactiveUserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Controller WebFlux com as leituras de usuários (perfil reactive)
+ *
+ * Atende os mesmos caminhos e respostas do UserController, que fica
+ * desativado neste perfil.
+ */
+@RestController
+@RequestMapping("/users")
+@Profile("reactive")
+@Tag(name = "Users", description = "API para gerenciamento de usuários")
+public class ReactiveUserController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserController.class);
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    @Operation(summary = "Buscar usuário por ID", description = "Retorna um usuário específico pelo ID")
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<User>> getUserById(
+            @Parameter(description = "ID do usuário", required = true)
+            @PathVariable String id) {
+
+        logger.info("Buscando usuário por ID: {}", id);
+
+        return userService.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Listar usuários ativos", description = "Retorna o resumo de todos os usuários ativos")
+    @GetMapping
+    public Mono<ResponseEntity<List<UserSummary>>> getActiveUsers() {
+        logger.info("Listando usuários ativos");
+
+        return userService.findActiveUserSummaries().map(ResponseEntity::ok);
+    }
+}
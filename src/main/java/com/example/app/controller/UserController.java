@@ -1,6 +1,9 @@
 package com.example.app.controller;
 
+import com.example.app.dto.UserSummary;
 import com.example.app.entity.User;
+import com.example.app.repository.CursorPage;
+import com.example.app.service.ExportService;
 import com.example.app.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,34 +12,48 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Controller REST para operações com usuários
+ *
+ * Desativado no perfil reactive, em que as leituras ficam no ReactiveUserController
  */
 @RestController
 @RequestMapping("/users")
+@Profile("!reactive")
 @Tag(name = "Users", description = "API para gerenciamento de usuários")
 public class UserController {
 
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ExportService exportService;
+
     @Operation(summary = "Criar novo usuário", description = "Cria um novo usuário no sistema")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Usuário criado com sucesso",
@@ -73,6 +90,10 @@ public class UserController {
         
         logger.info("Buscando usuário por ID: {}", id);
         
+        if (!userService.mightExist(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        
         Optional<User> user = userService.findById(id);
         return user.map(ResponseEntity::ok)
                   .orElse(ResponseEntity.notFound().build());
@@ -91,23 +112,27 @@ public class UserController {
         
         logger.info("Buscando usuário por email: {}", email);
         
+        if (!userService.mightExistEmail(email)) {
+            return ResponseEntity.notFound().build();
+        }
+        
         Optional<User> user = userService.findByEmail(email);
         return user.map(ResponseEntity::ok)
                   .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Listar usuários ativos", description = "Retorna lista de todos os usuários ativos")
+    @Operation(summary = "Listar usuários ativos", description = "Retorna o resumo de todos os usuários ativos")
     @ApiResponse(responseCode = "200", description = "Lista de usuários",
-            content = @Content(mediaType = "application/json", schema = @Schema(implementation = User.class)))
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserSummary.class)))
     @GetMapping
-    public ResponseEntity<List<User>> getActiveUsers() {
+    public ResponseEntity<List<UserSummary>> getActiveUsers() {
         logger.info("Listando usuários ativos");
         
-        List<User> users = userService.findActiveUsers();
+        List<UserSummary> users = userService.findActiveUserSummaries();
         return ResponseEntity.ok(users);
     }
 
-    @Operation(summary = "Listar usuários com paginação", description = "Retorna lista paginada de usuários ativos")
+    @Operation(summary = "Listar usuários com paginação", description = "Retorna lista paginada de usuários ativos (para páginas profundas use /users/cursor)")
     @ApiResponse(responseCode = "200", description = "Página de usuários")
     @GetMapping("/page")
     public ResponseEntity<Page<User>> getActiveUsersWithPagination(
@@ -132,6 +157,61 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @Operation(summary = "Listar usuários por cursor",
+            description = "Paginação por cursor (keyset) de usuários ativos: custo constante em qualquer profundidade e sem contagem. "
+                    + "Envie o nextCursor da resposta para obter a página seguinte")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de usuários"),
+            @ApiResponse(responseCode = "400", description = "Cursor, ordenação ou tamanho inválido")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<User>> getActiveUsersWithCursor(
+            @Parameter(description = "Cursor retornado pela página anterior (vazio na primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máximo " + MAX_CURSOR_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Campo para ordenação (name ou createdDate)")
+            @RequestParam(defaultValue = "name") String sortBy,
+            @Parameter(description = "Direção da ordenação (asc/desc)")
+            @RequestParam(defaultValue = "asc") String sortDir) {
+
+        logger.info("Listando usuários por cursor: size={}, sortBy={}", size, sortBy);
+
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        try {
+            return ResponseEntity.ok(userService.findActiveUsers(cursor, sortBy, direction, size));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Listagem por cursor inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Exportar usuários em NDJSON",
+            description = "Escreve um usuário JSON por linha, lido de um cursor do Mongo em lotes e sem cache: "
+                    + "memória constante qualquer que seja o número de usuários. Todos os filtros são opcionais")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Usuários em NDJSON",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)),
+            @ApiResponse(responseCode = "400", description = "Filtro inválido")
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportUsers(
+            @Parameter(description = "Situação do usuário")
+            @RequestParam(required = false) Boolean active,
+            @Parameter(description = "Apenas usuários modificados a partir deste instante (ISO-8601, ex.: 2024-01-01T00:00:00Z)")
+            @RequestParam(required = false) Instant modifiedSince,
+            HttpServletResponse response) throws IOException {
+
+        logger.info("Exportando usuários: active={}, modifiedSince={}", active, modifiedSince);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        exportService.exportUsers(active, modifiedSince, response.getOutputStream());
+    }
+
     @Operation(summary = "Buscar usuários por nome", description = "Busca usuários que contenham o nome especificado")
     @ApiResponse(responseCode = "200", description = "Lista de usuários encontrados")
     @GetMapping("/search")
@@ -145,12 +225,13 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
-    @Operation(summary = "Atualizar usuário", description = "Atualiza os dados de um usuário existente")
+    @Operation(summary = "Atualizar usuário", description = "Atualiza os dados de um usuário existente; com o campo version, só aplica se a versão ainda for a atual")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Usuário atualizado com sucesso",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = User.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos"),
-            @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Versão desatualizada: o usuário foi alterado por outra escrita")
     })
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(
@@ -168,6 +249,9 @@ public class UserController {
         } catch (IllegalArgumentException e) {
             logger.warn("Erro ao atualizar usuário: {}", e.getMessage());
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Conflito ao atualizar usuário {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
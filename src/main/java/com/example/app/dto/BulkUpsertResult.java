@@ -0,0 +1,101 @@
+package com.example.app.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de uma ingestão em lote de produtos
+ *
+ * {@code errors} detalha os itens rejeitados (validação ou escrita), pela
+ * posição no corpo da requisição; a lista é limitada, {@code failed} não.
+ */
+public class BulkUpsertResult {
+
+    private long received;
+    private long inserted;
+    private long updated;
+    private long failed;
+    private List<ItemError> errors = new ArrayList<>();
+
+    // Getters e Setters
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<ItemError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ItemError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Erro de um item: posição no corpo (0-based), ID (quando informado) e motivo
+     */
+    public static class ItemError {
+        private long index;
+        private String id;
+        private String message;
+
+        public ItemError() {}
+
+        public ItemError(long index, String id, String message) {
+            this.index = index;
+            this.id = id;
+            this.message = message;
+        }
+
+        public long getIndex() {
+            return index;
+        }
+
+        public void setIndex(long index) {
+            this.index = index;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.app.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Facetas do catálogo de produtos, calculadas em uma única agregação
+ *
+ * Categorias, tags e faixas de preço consideram os produtos disponíveis;
+ * as contagens de disponibilidade consideram todos os produtos.
+ */
+public class CatalogFacets {
+
+    private List<FacetCount> categories = new ArrayList<>();
+    private List<FacetCount> tags = new ArrayList<>();
+    private List<PriceRange> priceRanges = new ArrayList<>();
+    private long available;
+    private long unavailable;
+
+    // Getters e Setters
+    public List<FacetCount> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<FacetCount> categories) {
+        this.categories = categories;
+    }
+
+    public List<FacetCount> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<FacetCount> tags) {
+        this.tags = tags;
+    }
+
+    public List<PriceRange> getPriceRanges() {
+        return priceRanges;
+    }
+
+    public void setPriceRanges(List<PriceRange> priceRanges) {
+        this.priceRanges = priceRanges;
+    }
+
+    public long getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(long available) {
+        this.available = available;
+    }
+
+    public long getUnavailable() {
+        return unavailable;
+    }
+
+    public void setUnavailable(long unavailable) {
+        this.unavailable = unavailable;
+    }
+
+    /**
+     * Valor de uma faceta e quantidade de produtos
+     */
+    public static class FacetCount {
+        private String value;
+        private long count;
+
+        public FacetCount() {}
+
+        public FacetCount(String value, long count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+
+    /**
+     * Faixa de preço [min, max) e quantidade de produtos; max nulo na última faixa
+     */
+    public static class PriceRange {
+        private BigDecimal min;
+        private BigDecimal max;
+        private long count;
+
+        public PriceRange() {}
+
+        public PriceRange(BigDecimal min, BigDecimal max, long count) {
+            this.min = min;
+            this.max = max;
+            this.count = count;
+        }
+
+        public BigDecimal getMin() {
+            return min;
+        }
+
+        public void setMin(BigDecimal min) {
+            this.min = min;
+        }
+
+        public BigDecimal getMax() {
+            return max;
+        }
+
+        public void setMax(BigDecimal max) {
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+    }
+}
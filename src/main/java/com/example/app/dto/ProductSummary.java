@@ -0,0 +1,84 @@
+package com.example.app.dto;
+
+import org.springframework.data.annotation.PersistenceCreator;
+
+import java.math.BigDecimal;
+
+/**
+ * Resumo de produto para listagens
+ *
+ * Projeção: as consultas que retornam este tipo trazem do MongoDB apenas estes
+ * campos. O produto completo é carregado só nos endpoints de detalhe.
+ */
+public class ProductSummary {
+
+    private String id;
+    private String name;
+    private BigDecimal price;
+    private String category;
+    private boolean available;
+
+    // Construtores
+    public ProductSummary() {}
+
+    @PersistenceCreator
+    public ProductSummary(String id, String name, BigDecimal price, String category, boolean available) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.category = category;
+        this.available = available;
+    }
+
+    // Getters e Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductSummary{" +
+                "id='" + id + '\'' +
+                ", name='" + name + '\'' +
+                ", price=" + price +
+                ", category='" + category + '\'' +
+                ", available=" + available +
+                '}';
+    }
+}
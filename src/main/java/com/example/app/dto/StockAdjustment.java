@@ -0,0 +1,41 @@
+package com.example.app.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Ajuste de estoque de um produto: delta positivo repõe, negativo baixa
+ */
+public class StockAdjustment {
+
+    @NotBlank(message = "ID do produto é obrigatório")
+    private String productId;
+
+    @NotNull(message = "Delta é obrigatório")
+    private Integer delta;
+
+    // Construtores
+    public StockAdjustment() {}
+
+    public StockAdjustment(String productId, Integer delta) {
+        this.productId = productId;
+        this.delta = delta;
+    }
+
+    // Getters e Setters
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.app.dto;
+
+/**
+ * Resultado do ajuste de estoque de um produto em um lote
+ *
+ * {@code stock} é o estoque após o ajuste quando aplicado, ou o atual quando
+ * o ajuste violaria um limite; nulo se o produto não existe.
+ */
+public class StockAdjustmentResult {
+
+    private String productId;
+    private boolean applied;
+    private Integer stock;
+    private String error;
+
+    // Construtores
+    public StockAdjustmentResult() {}
+
+    public StockAdjustmentResult(String productId, boolean applied, Integer stock, String error) {
+        this.productId = productId;
+        this.applied = applied;
+        this.stock = stock;
+        this.error = error;
+    }
+
+    // Getters e Setters
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.app.dto;
+
+import org.springframework.data.annotation.PersistenceCreator;
+
+/**
+ * Resumo de usuário para listagens
+ *
+ * Projeção: as consultas que retornam este tipo trazem do MongoDB apenas estes
+ * campos. O usuário completo é carregado só nos endpoints de detalhe.
+ */
+public class UserSummary {
+
+    private String id;
+    private String name;
+    private String email;
+    private boolean active;
+
+    // Construtores
+    public UserSummary() {}
+
+    @PersistenceCreator
+    public UserSummary(String id, String name, String email, boolean active) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.active = active;
+    }
+
+    // Getters e Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSummary{" +
+                "id='" + id + '\'' +
+                ", name='" + name + '\'' +
+                ", email='" + email + '\'' +
+                ", active=" + active +
+                '}';
+    }
+}
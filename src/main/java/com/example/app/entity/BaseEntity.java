@@ -4,13 +4,15 @@ import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 
 import java.time.ZonedDateTime;
 
 /**
  * Classe base para auditoria de entidades
  * 
- * Fornece campos comuns de auditoria para todas as entidades
+ * Fornece campos comuns de auditoria para todas as entidades e a versão
+ * usada no controle de concorrência otimista (incrementada a cada escrita)
  */
 public abstract class BaseEntity {
 
@@ -26,6 +28,9 @@ public abstract class BaseEntity {
     @LastModifiedBy
     private String lastModifiedBy;
 
+    @Version
+    private Long version;
+
     // Getters e Setters
     public ZonedDateTime getCreatedDate() {
         return createdDate;
@@ -58,5 +63,13 @@ public abstract class BaseEntity {
     public void setLastModifiedBy(String lastModifiedBy) {
         this.lastModifiedBy = lastModifiedBy;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
 
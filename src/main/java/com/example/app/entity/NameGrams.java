@@ -0,0 +1,53 @@
+package com.example.app.entity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * N-gramas de nomes para busca "contém" (case-insensitive) via índice
+ *
+ * Para cada posição do nome normalizado é gerado o trecho de até {@link #SIZE}
+ * caracteres que começa ali. Assim, todo trecho de até SIZE caracteres do nome
+ * é prefixo de algum grama, e termos maiores contêm apenas gramas completos.
+ */
+public final class NameGrams {
+
+    public static final int SIZE = 3;
+
+    private NameGrams() {
+    }
+
+    /**
+     * Gramas de um nome (sem repetição)
+     */
+    public static List<String> of(String name) {
+        if (name == null || name.isEmpty()) {
+            return List.of();
+        }
+        String normalized = normalize(name);
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            grams.add(normalized.substring(i, Math.min(normalized.length(), i + SIZE)));
+        }
+        return new ArrayList<>(grams);
+    }
+
+    /**
+     * Gramas completos (de tamanho SIZE) de um termo de busca
+     */
+    public static List<String> ofTerm(String term) {
+        String normalized = normalize(term);
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + SIZE <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + SIZE));
+        }
+        return new ArrayList<>(grams);
+    }
+
+    public static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
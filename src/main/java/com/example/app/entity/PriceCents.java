@@ -0,0 +1,66 @@
+package com.example.app.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Preço em centavos (inteiro) para faixas e ordenação por índice
+ *
+ * O arredondamento é o mesmo do $round do MongoDB (metade para o par), usado
+ * pela migração que preenche o campo nos documentos existentes. Limites de
+ * consulta arredondam para dentro da faixa e ficam restritos ao intervalo de long.
+ */
+public final class PriceCents {
+
+    private static final BigDecimal MIN_PRICE = BigDecimal.valueOf(Long.MIN_VALUE, 2);
+    private static final BigDecimal MAX_PRICE = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+
+    private PriceCents() {
+    }
+
+    /**
+     * Centavos do preço, ou nulo se o preço é nulo
+     *
+     * @throws IllegalArgumentException se o preço não cabe em centavos (long)
+     */
+    public static Long of(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        if (price.compareTo(MIN_PRICE) < 0 || price.compareTo(MAX_PRICE) > 0) {
+            throw new IllegalArgumentException("Preço fora do intervalo suportado: " + price);
+        }
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValue();
+    }
+
+    /**
+     * Limite inferior inclusivo: menor valor em centavos que não fica abaixo do preço
+     */
+    public static long ceilingOf(BigDecimal price) {
+        return bound(price, RoundingMode.CEILING);
+    }
+
+    /**
+     * Limite superior inclusivo: maior valor em centavos que não passa do preço
+     */
+    public static long floorOf(BigDecimal price) {
+        return bound(price, RoundingMode.FLOOR);
+    }
+
+    /**
+     * Preço correspondente aos centavos
+     */
+    public static BigDecimal toPrice(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static long bound(BigDecimal price, RoundingMode mode) {
+        if (price.compareTo(MIN_PRICE) <= 0) {
+            return Long.MIN_VALUE;
+        }
+        if (price.compareTo(MAX_PRICE) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        return price.movePointRight(2).setScale(0, mode).longValue();
+    }
+}
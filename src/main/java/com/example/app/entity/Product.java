@@ -1,10 +1,13 @@
 package com.example.app.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -14,8 +17,29 @@ import java.util.Objects;
 
 /**
  * Entidade Product para demonstrar operações CRUD com MongoDB
+ *
+ * Os índices compostos seguem as consultas do ProductRepository; os parciais
+ * contêm só os produtos disponíveis, que são os únicos que essas consultas leem.
+ * Criados pela migração QueryShapeIndexesMigration e verificados em /actuator/indexadvisor.
  */
 @Document(collection = "products")
+@CompoundIndexes({
+        // findSummariesByAvailableTrue, findByAvailableTrue (ordenado por nome), cursor por nome, facetas
+        @CompoundIndex(name = "available_name_id", def = "{'available': 1, 'name': 1, '_id': 1}",
+                partialFilter = "{'available': true}"),
+        // cursor por data de criação
+        @CompoundIndex(name = "available_createdDate_id", def = "{'available': 1, 'createdDate': 1, '_id': 1}",
+                partialFilter = "{'available': true}"),
+        // findSummariesByCategoryAndAvailableTrue, findByCategoryAndAvailableTrue (ordenado por nome)
+        @CompoundIndex(name = "category_available_name", def = "{'category': 1, 'available': 1, 'name': 1}",
+                partialFilter = "{'available': true}"),
+        // findByStockLessThanEqualAndAvailableTrue
+        @CompoundIndex(name = "available_stock", def = "{'available': 1, 'stock': 1}",
+                partialFilter = "{'available': true}"),
+        // findAvailableByPriceCentsRange, ordenação e cursor por preço, facetas de preço
+        @CompoundIndex(name = "available_priceCents_id", def = "{'available': 1, 'priceCents': 1, '_id': 1}",
+                partialFilter = "{'available': true}")
+})
 public class Product extends BaseEntity {
 
     @Id
@@ -23,9 +47,13 @@ public class Product extends BaseEntity {
 
     @NotBlank(message = "Nome do produto é obrigatório")
     @Size(min = 2, max = 200, message = "Nome deve ter entre 2 e 200 caracteres")
-    @Indexed
     private String name;
 
+    // N-gramas do nome para a busca por trecho; derivado de name
+    @JsonIgnore
+    @Indexed
+    private List<String> nameGrams;
+
     @Size(max = 1000, message = "Descrição deve ter no máximo 1000 caracteres")
     private String description;
 
@@ -33,10 +61,15 @@ public class Product extends BaseEntity {
     @DecimalMin(value = "0.0", inclusive = false, message = "Preço deve ser maior que zero")
     private BigDecimal price;
 
+    // Preço em centavos para consultas por faixa e ordenação; derivado de price
+    @JsonIgnore
+    private Long priceCents;
+
     @NotBlank(message = "Categoria é obrigatória")
     @Indexed
     private String category;
 
+    @Indexed
     private List<String> tags;
 
     private boolean available = true;
@@ -47,9 +80,9 @@ public class Product extends BaseEntity {
     public Product() {}
 
     public Product(String name, String description, BigDecimal price, String category) {
-        this.name = name;
+        setName(name);
         this.description = description;
-        this.price = price;
+        setPrice(price);
         this.category = category;
     }
 
@@ -68,6 +101,11 @@ public class Product extends BaseEntity {
 
     public void setName(String name) {
         this.name = name;
+        this.nameGrams = NameGrams.of(name);
+    }
+
+    public List<String> getNameGrams() {
+        return nameGrams;
     }
 
     public String getDescription() {
@@ -84,6 +122,11 @@ public class Product extends BaseEntity {
 
     public void setPrice(BigDecimal price) {
         this.price = price;
+        this.priceCents = PriceCents.of(price);
+    }
+
+    public Long getPriceCents() {
+        return priceCents;
     }
 
     public String getCategory() {
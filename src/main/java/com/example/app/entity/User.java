@@ -1,18 +1,33 @@
 package com.example.app.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Entidade User para demonstrar operações CRUD com MongoDB
+ *
+ * Os índices compostos seguem as consultas do UserRepository e contêm só os
+ * usuários ativos. Criados pela migração QueryShapeIndexesMigration.
  */
 @Document(collection = "users")
+@CompoundIndexes({
+        // findSummariesByActiveTrue, findByActiveTrue (ordenado por nome), cursor por nome
+        @CompoundIndex(name = "active_name_id", def = "{'active': 1, 'name': 1, '_id': 1}",
+                partialFilter = "{'active': true}"),
+        // cursor por data de criação
+        @CompoundIndex(name = "active_createdDate_id", def = "{'active': 1, 'createdDate': 1, '_id': 1}",
+                partialFilter = "{'active': true}")
+})
 public class User extends BaseEntity {
 
     @Id
@@ -22,6 +37,11 @@ public class User extends BaseEntity {
     @Size(min = 2, max = 100, message = "Nome deve ter entre 2 e 100 caracteres")
     private String name;
 
+    // N-gramas do nome para a busca por trecho; derivado de name
+    @JsonIgnore
+    @Indexed
+    private List<String> nameGrams;
+
     @NotBlank(message = "Email é obrigatório")
     @Email(message = "Email deve ter formato válido")
     @Indexed(unique = true)
@@ -39,12 +59,12 @@ public class User extends BaseEntity {
     public User() {}
 
     public User(String name, String email) {
-        this.name = name;
+        setName(name);
         this.email = email;
     }
 
     public User(String name, String email, String phone, String bio) {
-        this.name = name;
+        setName(name);
         this.email = email;
         this.phone = phone;
         this.bio = bio;
@@ -65,6 +85,11 @@ public class User extends BaseEntity {
 
     public void setName(String name) {
         this.name = name;
+        this.nameGrams = NameGrams.of(name);
+    }
+
+    public List<String> getNameGrams() {
+        return nameGrams;
     }
 
     public String getEmail() {
@@ -0,0 +1,19 @@
+package com.example.app.migration;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Migração de dados aplicada uma única vez por banco
+ *
+ * O id fica registrado na coleção de migrações após a execução com sucesso;
+ * a implementação deve ser idempotente, pois uma execução interrompida é refeita.
+ */
+public interface DataMigration {
+
+    /**
+     * Identificador único; define também a ordem de execução
+     */
+    String id();
+
+    void migrate(MongoTemplate mongoTemplate, int batchSize);
+}
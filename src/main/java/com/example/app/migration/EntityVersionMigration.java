@@ -0,0 +1,38 @@
+package com.example.app.migration;
+
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import com.mongodb.client.result.UpdateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Define version = 0 nos produtos e usuários gravados antes do controle otimista
+ *
+ * Sem o campo, o save() trataria o documento lido como novo e tentaria inseri-lo.
+ */
+@Component
+public class EntityVersionMigration implements DataMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityVersionMigration.class);
+
+    @Override
+    public String id() {
+        return "0003-entity-version";
+    }
+
+    @Override
+    public void migrate(MongoTemplate mongoTemplate, int batchSize) {
+        for (Class<?> type : new Class<?>[] {Product.class, User.class}) {
+            UpdateResult result = mongoTemplate.updateMulti(new Query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L), type);
+            logger.info("version definida em {} documentos de {}", result.getModifiedCount(),
+                    mongoTemplate.getCollectionName(type));
+        }
+    }
+}
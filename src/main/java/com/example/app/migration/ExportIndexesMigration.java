@@ -0,0 +1,26 @@
+package com.example.app.migration;
+
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+/**
+ * Índices de lastModifiedDate usados pelas exportações incrementais (modifiedSince)
+ */
+@Component
+public class ExportIndexesMigration implements DataMigration {
+
+    @Override
+    public String id() {
+        return "0004-export-indexes";
+    }
+
+    @Override
+    public void migrate(MongoTemplate mongoTemplate, int batchSize) {
+        mongoTemplate.indexOps(Product.class).ensureIndex(new Index().on("lastModifiedDate", Sort.Direction.ASC));
+        mongoTemplate.indexOps(User.class).ensureIndex(new Index().on("lastModifiedDate", Sort.Direction.ASC));
+    }
+}
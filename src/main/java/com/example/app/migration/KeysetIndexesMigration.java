@@ -0,0 +1,43 @@
+package com.example.app.migration;
+
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Índices {filtro, campo, _id} usados pelas listagens por cursor
+ *
+ * Os campos são os da época desta migração; campos de cursor adicionados
+ * depois ganham índice na própria migração que os introduz.
+ */
+@Component
+public class KeysetIndexesMigration implements DataMigration {
+
+    private static final List<String> SORT_FIELDS = List.of("name", "createdDate");
+
+    @Override
+    public String id() {
+        return "0002-keyset-indexes";
+    }
+
+    @Override
+    public void migrate(MongoTemplate mongoTemplate, int batchSize) {
+        for (String field : SORT_FIELDS) {
+            mongoTemplate.indexOps(Product.class).ensureIndex(new Index()
+                    .on("available", Sort.Direction.ASC)
+                    .on(field, Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC));
+        }
+        for (String field : SORT_FIELDS) {
+            mongoTemplate.indexOps(User.class).ensureIndex(new Index()
+                    .on("active", Sort.Direction.ASC)
+                    .on(field, Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.app.migration;
+
+import com.example.app.config.AppConfig.AppProperties;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Executa na inicialização as migrações de dados ainda não aplicadas
+ *
+ * Roda antes dos demais ApplicationRunners (como o aquecimento do cache), para
+ * que nada leia documentos em formato antigo. Uma falha interrompe a
+ * inicialização: a migração é refeita na próxima subida.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "app.migrations", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MigrationRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigrationRunner.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private List<DataMigration> migrations;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AppProperties.Migrations properties = appProperties.getMigrations();
+        List<DataMigration> ordered = migrations.stream()
+                .sorted(Comparator.comparing(DataMigration::id))
+                .toList();
+        for (DataMigration migration : ordered) {
+            Query applied = new Query(Criteria.where("_id").is(migration.id()));
+            if (mongoTemplate.exists(applied, properties.getCollection())) {
+                continue;
+            }
+            logger.info("Aplicando migração {}", migration.id());
+            long start = System.currentTimeMillis();
+            migration.migrate(mongoTemplate, Math.max(1, properties.getBatchSize()));
+            long elapsed = System.currentTimeMillis() - start;
+            mongoTemplate.insert(new Document("_id", migration.id())
+                    .append("appliedAt", new Date())
+                    .append("durationMs", elapsed), properties.getCollection());
+            logger.info("Migração {} aplicada em {} ms", migration.id(), elapsed);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.app.migration;
+
+import com.example.app.entity.NameGrams;
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Preenche nameGrams dos produtos e usuários existentes e cria os índices da busca por nome
+ */
+@Component
+public class NameGramsMigration implements DataMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(NameGramsMigration.class);
+
+    @Override
+    public String id() {
+        return "0001-name-grams";
+    }
+
+    @Override
+    public void migrate(MongoTemplate mongoTemplate, int batchSize) {
+        backfill(mongoTemplate, Product.class, batchSize);
+        backfill(mongoTemplate, User.class, batchSize);
+        mongoTemplate.indexOps(Product.class).ensureIndex(new Index().on("nameGrams", Sort.Direction.ASC));
+        mongoTemplate.indexOps(User.class).ensureIndex(new Index().on("nameGrams", Sort.Direction.ASC));
+    }
+
+    private void backfill(MongoTemplate mongoTemplate, Class<?> type, int batchSize) {
+        Query query = new Query(Criteria.where("nameGrams").exists(false)).cursorBatchSize(batchSize);
+        query.fields().include("_id", "name");
+        String collection = mongoTemplate.getCollectionName(type);
+        long updated = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, collection)) {
+            Iterator<Document> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                Document document = iterator.next();
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(document.get("_id"))),
+                        new Update().set("nameGrams", NameGrams.of(document.getString("name"))));
+                if (++pending == batchSize) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulk != null) {
+            updated += bulk.execute().getModifiedCount();
+        }
+        logger.info("nameGrams preenchido em {} documentos de {}", updated, collection);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.app.migration;
+
+import com.example.app.entity.Product;
+import com.mongodb.MongoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Preenche priceCents dos produtos existentes e troca o índice de price pelo de {available, priceCents, _id}
+ *
+ * O preenchimento é um único update no servidor: price (string ou Decimal128)
+ * multiplicado por 100 e arredondado como em {@link com.example.app.entity.PriceCents}.
+ */
+@Component
+public class PriceCentsMigration implements DataMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceCentsMigration.class);
+
+    private static final int INDEX_NOT_FOUND = 27;
+
+    // Índice de price criado pela anotação (price) e pelo mongo-init.js (price_1)
+    private static final List<String> REPLACED = List.of("price", "price_1");
+
+    @Override
+    public String id() {
+        return "0006-price-cents";
+    }
+
+    @Override
+    public void migrate(MongoTemplate mongoTemplate, int batchSize) {
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("priceCents").toValue(ConvertOperators.valueOf(
+                        ArithmeticOperators.valueOf(
+                                ArithmeticOperators.valueOf(ConvertOperators.valueOf("price").convertToDecimal())
+                                        .multiplyBy(100))
+                                .round())
+                        .convertToLong());
+        long updated = mongoTemplate.updateMulti(
+                new Query(Criteria.where("priceCents").exists(false).and("price").ne(null)),
+                update, Product.class).getModifiedCount();
+        logger.info("priceCents preenchido em {} produtos", updated);
+
+        IndexOperations indexOps = mongoTemplate.indexOps(Product.class);
+        indexOps.ensureIndex(new Index()
+                .on("available", Sort.Direction.ASC)
+                .on("priceCents", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("available_priceCents_id")
+                .partial(PartialIndexFilter.of(Criteria.where("available").is(true))));
+        for (String name : REPLACED) {
+            drop(indexOps, name);
+        }
+    }
+
+    private void drop(IndexOperations indexOps, String name) {
+        try {
+            indexOps.dropIndex(name);
+            logger.info("Índice {} removido", name);
+        } catch (RuntimeException e) {
+            if (errorCode(e) != INDEX_NOT_FOUND) {
+                throw e;
+            }
+        }
+    }
+
+    private static int errorCode(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException) {
+                return mongoException.getCode();
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.app.migration;
+
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import com.mongodb.MongoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índices declarados nas entidades (compostos e parciais por formato de consulta)
+ *
+ * Cria os índices resolvidos das anotações de Product e User e remove os que
+ * eles substituem: os compostos de cursor sem filtro parcial, os de campo único
+ * em available/active/name e os de texto, que nenhuma consulta usa. Índices
+ * anotados que já existem com outro nome são mantidos como estão.
+ */
+@Component
+public class QueryShapeIndexesMigration implements DataMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryShapeIndexesMigration.class);
+
+    // Códigos de erro do servidor
+    private static final int INDEX_OPTIONS_CONFLICT = 85;
+    private static final int INDEX_KEY_SPECS_CONFLICT = 86;
+    private static final int INDEX_NOT_FOUND = 27;
+
+    private static final Map<Class<?>, List<String>> REPLACED = Map.of(
+            Product.class, List.of("available_1_name_1__id_1", "available_1_createdDate_1__id_1", "available_1",
+                    "name", "name_text"),
+            User.class, List.of("active_1_name_1__id_1", "active_1_createdDate_1__id_1", "active_1", "name_text"));
+
+    @Override
+    public String id() {
+        return "0005-query-shape-indexes";
+    }
+
+    @Override
+    public void migrate(MongoTemplate mongoTemplate, int batchSize) {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> type : List.of(Product.class, User.class)) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            for (IndexDefinition index : resolver.resolveIndexFor(type)) {
+                ensure(indexOps, index);
+            }
+            for (String name : REPLACED.get(type)) {
+                drop(indexOps, name);
+            }
+        }
+    }
+
+    private void ensure(IndexOperations indexOps, IndexDefinition index) {
+        try {
+            indexOps.ensureIndex(index);
+        } catch (RuntimeException e) {
+            int code = errorCode(e);
+            if (code != INDEX_OPTIONS_CONFLICT && code != INDEX_KEY_SPECS_CONFLICT) {
+                throw e;
+            }
+            logger.info("Índice {} já existe com outro nome ou opções; mantido", index.getIndexKeys());
+        }
+    }
+
+    private void drop(IndexOperations indexOps, String name) {
+        try {
+            indexOps.dropIndex(name);
+            logger.info("Índice {} removido", name);
+        } catch (RuntimeException e) {
+            if (errorCode(e) != INDEX_NOT_FOUND) {
+                throw e;
+            }
+        }
+    }
+
+    private static int errorCode(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException) {
+                return mongoException.getCode();
+            }
+        }
+        return -1;
+    }
+}
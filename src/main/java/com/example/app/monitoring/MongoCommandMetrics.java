@@ -0,0 +1,285 @@
+package com.example.app.monitoring;
+
+import com.example.app.config.AppConfig.AppProperties;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métricas dos comandos enviados ao MongoDB, por comando, coleção e método de repositório
+ *
+ * Para cada comando registra no Micrometer (e no Prometheus):
+ * - mongo.command: histograma da duração (tag status = success | failure)
+ * - mongo.command.documents: documentos retornados (lote do cursor ou n das escritas)
+ * - mongo.command.reply.bytes: tamanho da resposta do servidor
+ *
+ * Comandos acima de app.mongo.commands.slow-threshold ficam num buffer circular
+ * com o formato do filtro (valores trocados por "?"), exposto em /actuator/slowcommands.
+ * Comandos de clientes reativos não têm o método de repositório (tag method = none).
+ */
+public class MongoCommandMetrics implements CommandListener {
+
+    private static final String NONE = "none";
+    private static final int MAX_SHAPE_LENGTH = 500;
+
+    /** Comandos internos do driver, sem coleção e sem interesse para as métricas */
+    private static final Set<String> IGNORED_COMMANDS = Set.of(
+            "hello", "ismaster", "isMaster", "ping", "buildInfo", "saslStart", "saslContinue", "endSessions");
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final int slowCapacity;
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+    private final Map<Tags, Meters> meters = new ConcurrentHashMap<>();
+    private final Deque<SlowCommand> slowCommands = new ArrayDeque<>();
+    private final AtomicLong slowCount = new AtomicLong();
+
+    public MongoCommandMetrics(MeterRegistry meterRegistry, AppProperties appProperties) {
+        AppProperties.Mongo.Commands commands = appProperties.getMongo().getCommands();
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(commands.getSlowThreshold());
+        this.slowCapacity = Math.max(0, commands.getSlowCapacity());
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String commandName = event.getCommandName();
+        if (IGNORED_COMMANDS.contains(commandName)) {
+            return;
+        }
+        // O documento do comando só é válido durante este callback
+        BsonDocument command = event.getCommand();
+        String method = RepositoryMethodTagging.current();
+        Tags tags = new Tags(commandName, collection(command, commandName), method != null ? method : NONE);
+        String shape = slowCapacity > 0 ? filterShape(command, commandName) : null;
+        inFlight.put(event.getRequestId(), new Started(tags, shape));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Started started = inFlight.remove(event.getRequestId());
+        if (started == null) {
+            return;
+        }
+        long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        BsonDocument reply = event.getResponse();
+        long documents = documents(reply);
+        Meters m = meters(started.tags());
+        m.success().record(elapsed, TimeUnit.NANOSECONDS);
+        m.documents().record(documents);
+        if (reply instanceof RawBsonDocument raw) {
+            m.replyBytes().record(raw.getByteBuffer().remaining());
+        }
+        if (elapsed >= slowThresholdNanos) {
+            recordSlow(started, elapsed, documents, null);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        Started started = inFlight.remove(event.getRequestId());
+        if (started == null) {
+            return;
+        }
+        long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        meters(started.tags()).failure().record(elapsed, TimeUnit.NANOSECONDS);
+        if (elapsed >= slowThresholdNanos) {
+            recordSlow(started, elapsed, -1, event.getThrowable().getMessage());
+        }
+    }
+
+    /**
+     * Comandos lentos capturados, do mais recente ao mais antigo
+     */
+    public List<SlowCommand> getSlowCommands() {
+        synchronized (slowCommands) {
+            return new ArrayList<>(slowCommands);
+        }
+    }
+
+    /**
+     * Total de comandos lentos desde a inicialização (inclusive os já descartados do buffer)
+     */
+    public long getSlowCount() {
+        return slowCount.get();
+    }
+
+    public long getSlowThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    public int getSlowCapacity() {
+        return slowCapacity;
+    }
+
+    public void clearSlowCommands() {
+        synchronized (slowCommands) {
+            slowCommands.clear();
+        }
+    }
+
+    private void recordSlow(Started started, long elapsedNanos, long documents, String error) {
+        slowCount.incrementAndGet();
+        if (slowCapacity == 0) {
+            return;
+        }
+        SlowCommand slow = new SlowCommand(Instant.now(), started.tags().command(), started.tags().collection(),
+                started.tags().method(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                documents >= 0 ? documents : null, started.filterShape(), error);
+        synchronized (slowCommands) {
+            if (slowCommands.size() >= slowCapacity) {
+                slowCommands.removeLast();
+            }
+            slowCommands.addFirst(slow);
+        }
+    }
+
+    private Meters meters(Tags tags) {
+        return meters.computeIfAbsent(tags, t -> new Meters(
+                timer(t, "success"),
+                timer(t, "failure"),
+                DistributionSummary.builder("mongo.command.documents")
+                        .description("Documentos retornados por comando do MongoDB")
+                        .tags("command", t.command(), "collection", t.collection(), "method", t.method())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                DistributionSummary.builder("mongo.command.reply.bytes")
+                        .description("Tamanho das respostas do MongoDB")
+                        .baseUnit("bytes")
+                        .tags("command", t.command(), "collection", t.collection(), "method", t.method())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)));
+    }
+
+    private Timer timer(Tags tags, String status) {
+        return Timer.builder("mongo.command")
+                .description("Duração dos comandos enviados ao MongoDB")
+                .tags("command", tags.command(), "collection", tags.collection(), "method", tags.method())
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Coleção alvo: valor do próprio comando (find: "products") ou o campo collection do getMore
+     */
+    private static String collection(BsonDocument command, String commandName) {
+        BsonValue value = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return value != null && value.isString() ? value.asString().getValue() : NONE;
+    }
+
+    /**
+     * Documentos retornados: lote do cursor nas leituras ou n nas escritas e contagens
+     */
+    private static long documents(BsonDocument reply) {
+        BsonValue cursor = reply.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().get("firstBatch");
+            if (batch == null) {
+                batch = cursor.asDocument().get("nextBatch");
+            }
+            return batch != null && batch.isArray() ? batch.asArray().size() : 0;
+        }
+        BsonValue n = reply.get("n");
+        return n != null && n.isNumber() ? n.asNumber().longValue() : 0;
+    }
+
+    /**
+     * Formato do filtro do comando, com os valores trocados por "?"
+     */
+    private static String filterShape(BsonDocument command, String commandName) {
+        BsonValue filter = switch (commandName) {
+            case "find" -> command.get("filter");
+            case "count", "distinct", "findAndModify" -> command.get("query");
+            case "aggregate" -> command.get("pipeline");
+            case "update" -> first(command.get("updates"), "q");
+            case "delete" -> first(command.get("deletes"), "q");
+            default -> null;
+        };
+        if (filter == null) {
+            return null;
+        }
+        StringBuilder shape = new StringBuilder();
+        appendShape(filter, shape);
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) + "..." : shape.toString();
+    }
+
+    private static BsonValue first(BsonValue statements, String field) {
+        if (statements == null || !statements.isArray() || statements.asArray().isEmpty()) {
+            return null;
+        }
+        BsonValue statement = statements.asArray().get(0);
+        return statement.isDocument() ? statement.asDocument().get(field) : null;
+    }
+
+    private static void appendShape(BsonValue value, StringBuilder shape) {
+        if (shape.length() > MAX_SHAPE_LENGTH) {
+            return;
+        }
+        if (value.isDocument()) {
+            shape.append('{');
+            boolean first = true;
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                if (!first) {
+                    shape.append(", ");
+                }
+                first = false;
+                shape.append(entry.getKey()).append(": ");
+                appendShape(entry.getValue(), shape);
+            }
+            shape.append('}');
+        } else if (value.isArray()) {
+            BsonArray array = value.asArray();
+            // Listas de valores ($in) têm o mesmo formato seja qual for o tamanho
+            if (array.isEmpty() || !array.get(0).isDocument() && !array.get(0).isArray()) {
+                shape.append("[?]");
+                return;
+            }
+            shape.append('[');
+            for (int i = 0; i < array.size(); i++) {
+                if (i > 0) {
+                    shape.append(", ");
+                }
+                appendShape(array.get(i), shape);
+            }
+            shape.append(']');
+        } else {
+            shape.append('?');
+        }
+    }
+
+    private record Tags(String command, String collection, String method) {
+    }
+
+    private record Started(Tags tags, String filterShape) {
+    }
+
+    private record Meters(Timer success, Timer failure, DistributionSummary documents, DistributionSummary replyBytes) {
+    }
+
+    /**
+     * Comando acima do limite de lentidão
+     */
+    public record SlowCommand(Instant timestamp, String command, String collection, String method,
+                              long durationMs, Long documents, String filterShape, String error) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.app.monitoring;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo de espera por uma conexão do pool (mongodb.driver.pool.wait)
+ *
+ * Complementa os gauges do Micrometer (mongodb.driver.pool.size, checkedout e
+ * waitqueuesize): o percentil alto da espera, comparado a app.mongo.pool.max-wait,
+ * indica quando o pool está pequeno para a carga.
+ */
+public class MongoPoolWaitMetrics implements ConnectionPoolListener {
+
+    private final MeterRegistry meterRegistry;
+
+    public MongoPoolWaitMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        timer(event.getConnectionId().getServerId(), "success")
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        timer(event.getServerId(), event.getReason().name().toLowerCase(Locale.ROOT))
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(ServerId serverId, String result) {
+        return Timer.builder("mongodb.driver.pool.wait")
+                .description("Espera por uma conexão do pool do MongoDB")
+                .tag("cluster.id", serverId.getClusterId().getValue())
+                .tag("server.address", serverId.getAddress().toString())
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.app.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint actuator com os últimos comandos lentos do MongoDB e o formato dos seus filtros
+ */
+@Component
+@Endpoint(id = "slowcommands")
+public class SlowCommandsEndpoint {
+
+    private final MongoCommandMetrics mongoCommandMetrics;
+
+    public SlowCommandsEndpoint(MongoCommandMetrics mongoCommandMetrics) {
+        this.mongoCommandMetrics = mongoCommandMetrics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowCommands() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("thresholdMs", mongoCommandMetrics.getSlowThresholdMillis());
+        result.put("capacity", mongoCommandMetrics.getSlowCapacity());
+        result.put("total", mongoCommandMetrics.getSlowCount());
+        result.put("commands", mongoCommandMetrics.getSlowCommands());
+        return result;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        mongoCommandMetrics.clearSlowCommands();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.app.repository;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem por cursor (keyset)
+ *
+ * {@code nextCursor} é opaco e deve ser repassado para obter a página seguinte;
+ * é nulo na última página. Não há total de elementos: nenhuma contagem é feita.
+ */
+public record CursorPage<T>(List<T> content, int size, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.app.repository;
+
+import com.mongodb.ExplainVerbosity;
+import org.bson.Document;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Endpoint actuator que executa explain() para o formato de cada consulta dos repositórios
+ *
+ * Cada formato reproduz o filtro e a ordenação de um método de ProductRepository
+ * ou UserRepository, com valores de exemplo. O relatório traz o plano vencedor e
+ * marca varreduras da coleção (COLLSCAN) e ordenações em memória (SORT).
+ */
+@Component
+@Endpoint(id = "indexadvisor")
+public class IndexAdvisorEndpoint {
+
+    private static final String SAMPLE = "sample";
+
+    private final MongoTemplate mongoTemplate;
+
+    public IndexAdvisorEndpoint(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @ReadOperation
+    public Map<String, Object> advise() {
+        List<Map<String, Object>> reports = new ArrayList<>();
+        int problems = 0;
+        for (QueryShape shape : shapes()) {
+            Map<String, Object> report = explain(shape);
+            if (Boolean.TRUE.equals(report.get("collectionScan")) || Boolean.TRUE.equals(report.get("inMemorySort"))) {
+                problems++;
+            }
+            reports.add(report);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("shapes", reports.size());
+        result.put("problems", problems);
+        result.put("reports", reports);
+        return result;
+    }
+
+    private Map<String, Object> explain(QueryShape shape) {
+        Document filter = shape.query().getQueryObject();
+        Document sort = shape.query().getSortObject();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("query", shape.name());
+        report.put("collection", shape.collection());
+        report.put("filter", filter.toJson());
+        report.put("sort", sort.toJson());
+        try {
+            Document explain = mongoTemplate.getCollection(shape.collection())
+                    .find(filter)
+                    .sort(sort)
+                    .limit(shape.query().getLimit())
+                    .explain(ExplainVerbosity.QUERY_PLANNER);
+            Object winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan");
+            List<String> stages = new ArrayList<>();
+            Set<String> indexes = new LinkedHashSet<>();
+            collect(winningPlan, stages, indexes);
+            report.put("stages", stages);
+            report.put("indexes", indexes);
+            report.put("collectionScan", stages.contains("COLLSCAN"));
+            report.put("inMemorySort", stages.contains("SORT"));
+        } catch (RuntimeException e) {
+            report.put("error", e.getMessage());
+        }
+        return report;
+    }
+
+    /**
+     * Estágios e índices do plano, da raiz às folhas (o formato do plano varia entre os motores de execução)
+     */
+    private static void collect(Object node, List<String> stages, Set<String> indexes) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            if (document.get("indexName") instanceof String indexName) {
+                indexes.add(indexName);
+            }
+            document.values().forEach(value -> collect(value, stages, indexes));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collect(value, stages, indexes));
+        }
+    }
+
+    /**
+     * Formatos das consultas dos repositórios e da exportação
+     */
+    private static List<QueryShape> shapes() {
+        Criteria available = Criteria.where("available").is(true);
+        Criteria active = Criteria.where("active").is(true);
+        Sort byName = Sort.by("name");
+        return List.of(
+                new QueryShape("ProductRepository.findByCategory", "products",
+                        new Query(Criteria.where("category").is(SAMPLE))),
+                new QueryShape("ProductRepository.findSummariesByAvailableTrue", "products",
+                        new Query(available)),
+                new QueryShape("ProductRepository.findSummariesByCategoryAndAvailableTrue", "products",
+                        new Query(Criteria.where("category").is(SAMPLE).and("available").is(true))),
+                new QueryShape("ProductRepository.findAvailableByPriceCentsRange", "products",
+                        new Query(Criteria.where("available").is(true).and("priceCents").gte(0L).lte(100000L))
+                                .with(Sort.by("priceCents"))),
+                new QueryShape("ProductRepository.findByTagsContaining", "products",
+                        new Query(Criteria.where("tags").in(SAMPLE))),
+                new QueryShape("ProductRepository.findByAvailableTrue(page)", "products",
+                        new Query(available).with(byName).limit(10)),
+                new QueryShape("ProductRepository.findByCategoryAndAvailableTrue(page)", "products",
+                        new Query(Criteria.where("category").is(SAMPLE).and("available").is(true))
+                                .with(byName).limit(10)),
+                new QueryShape("ProductRepository.findByStockLessThanEqualAndAvailableTrue", "products",
+                        new Query(Criteria.where("stock").lte(10).and("available").is(true))),
+                new QueryShape("ProductRepository.searchByName", "products",
+                        new Query(NameSearch.criteria(SAMPLE))),
+                new QueryShape("ProductRepository.searchAvailableByName", "products",
+                        new Query(new Criteria().andOperator(NameSearch.criteria(SAMPLE), available))),
+                new QueryShape("ProductRepository.findAvailableAfter(name)", "products",
+                        new Query(available).with(Sort.by("name", "_id")).limit(11)),
+                new QueryShape("ProductRepository.findAvailableAfter(createdDate)", "products",
+                        new Query(available).with(Sort.by("createdDate", "_id")).limit(11)),
+                new QueryShape("ProductRepository.findAvailableAfter(priceCents)", "products",
+                        new Query(available).with(Sort.by("priceCents", "_id")).limit(11)),
+                new QueryShape("ExportService.exportProducts(modifiedSince)", "products",
+                        new Query(Criteria.where("lastModifiedDate").gte(new Date(0)))),
+                new QueryShape("UserRepository.findByEmail", "users",
+                        new Query(Criteria.where("email").is(SAMPLE))),
+                new QueryShape("UserRepository.findSummariesByActiveTrue", "users",
+                        new Query(active)),
+                new QueryShape("UserRepository.findByActiveTrue(page)", "users",
+                        new Query(active).with(byName).limit(10)),
+                new QueryShape("UserRepository.searchByName", "users",
+                        new Query(NameSearch.criteria(SAMPLE))),
+                new QueryShape("UserRepository.searchActiveByName", "users",
+                        new Query(new Criteria().andOperator(NameSearch.criteria(SAMPLE), active))),
+                new QueryShape("UserRepository.findActiveAfter(name)", "users",
+                        new Query(active).with(Sort.by("name", "_id")).limit(11)),
+                new QueryShape("UserRepository.findActiveAfter(createdDate)", "users",
+                        new Query(active).with(Sort.by("createdDate", "_id")).limit(11)),
+                new QueryShape("ExportService.exportUsers(modifiedSince)", "users",
+                        new Query(Criteria.where("lastModifiedDate").gte(new Date(0)))));
+    }
+
+    /**
+     * Consulta representativa de um método de repositório
+     */
+    private record QueryShape(String name, String collection, Query query) {
+    }
+}
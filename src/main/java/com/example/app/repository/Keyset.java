@@ -0,0 +1,113 @@
+package com.example.app.repository;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Paginação por cursor (keyset) ordenada por um campo e pelo _id
+ *
+ * O cursor guarda o campo/direção da ordenação e os valores (campo, _id) do
+ * último documento da página, no formato em que estão gravados. A página
+ * seguinte é uma faixa do índice {filtro, campo, _id} a partir desse ponto:
+ * o custo não depende da profundidade e inserções concorrentes não deslocam
+ * nem duplicam itens. Uma linha a mais é lida só para saber se há próxima página.
+ *
+ * Campo nulo ou ausente ordena antes de qualquer valor (no fim, em ordem
+ * decrescente) e não casa com $gt/$lt; a continuação trata esse trecho à parte.
+ */
+final class Keyset {
+
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    private Keyset() {
+    }
+
+    static <T> CursorPage<T> page(MongoTemplate mongoTemplate, Class<T> type, Criteria filter,
+                                  Set<String> sortFields, String sortBy, Sort.Direction direction,
+                                  String cursor, int size) {
+        if (!sortFields.contains(sortBy)) {
+            throw new IllegalArgumentException("Campo de ordenação não suportado: " + sortBy);
+        }
+        Query query = new Query(filter)
+                .with(Sort.by(direction, sortBy, "_id"))
+                .limit(size + 1);
+        if (cursor != null && !cursor.isEmpty()) {
+            Document position = decode(cursor);
+            if (!sortBy.equals(position.getString("s")) || !direction.name().equals(position.getString("d"))) {
+                throw new IllegalArgumentException("Cursor gerado para outra ordenação");
+            }
+            query.addCriteria(after(sortBy, direction, position.get("v"), position.get("id")));
+        }
+
+        String collection = mongoTemplate.getCollectionName(type);
+        List<Document> documents = mongoTemplate.find(query, Document.class, collection);
+        boolean hasNext = documents.size() > size;
+        List<Document> page = hasNext ? documents.subList(0, size) : documents;
+
+        List<T> content = new ArrayList<>(page.size());
+        for (Document document : page) {
+            content.add(mongoTemplate.getConverter().read(type, document));
+        }
+        String nextCursor = null;
+        if (hasNext) {
+            Document last = page.get(page.size() - 1);
+            nextCursor = encode(new Document("s", sortBy)
+                    .append("d", direction.name())
+                    .append("v", last.get(sortBy))
+                    .append("id", last.get("_id")));
+        }
+        return new CursorPage<>(content, size, nextCursor);
+    }
+
+    /**
+     * Documentos depois da posição (valor, _id) na ordenação informada
+     */
+    static Criteria after(String field, Sort.Direction direction, Object value, Object id) {
+        if (direction.isAscending()) {
+            if (value == null) {
+                // Resto do trecho nulo, depois todos os valores
+                return new Criteria().orOperator(
+                        new Criteria().andOperator(Criteria.where(field).is(null), Criteria.where("_id").gt(id)),
+                        Criteria.where(field).ne(null));
+            }
+            return new Criteria().orOperator(
+                    Criteria.where(field).gt(value),
+                    new Criteria().andOperator(Criteria.where(field).is(value), Criteria.where("_id").gt(id)));
+        }
+        if (value == null) {
+            // Trecho nulo é o último: só resta ele
+            return new Criteria().andOperator(Criteria.where(field).is(null), Criteria.where("_id").lt(id));
+        }
+        return new Criteria().orOperator(
+                Criteria.where(field).lt(value),
+                new Criteria().andOperator(Criteria.where(field).is(value), Criteria.where("_id").lt(id)),
+                Criteria.where(field).is(null));
+    }
+
+    static String encode(Document position) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.toJson(JSON).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Document decode(String cursor) {
+        try {
+            Document position = Document.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            Objects.requireNonNull(position.get("id"));
+            return position;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.app.repository;
+
+import com.example.app.entity.NameGrams;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * Critério de busca "contém" (case-insensitive) por nome usando o índice de n-gramas
+ *
+ * Termos curtos viram um regex ancorado sobre os gramas (usa os limites do índice);
+ * termos maiores exigem todos os seus gramas ({@code $all}) e o regex no nome só
+ * confirma a ordem dos gramas nos candidatos já filtrados pelo índice.
+ */
+final class NameSearch {
+
+    private static final String GRAMS_FIELD = "nameGrams";
+    private static final String NAME_FIELD = "name";
+    private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private NameSearch() {
+    }
+
+    static Criteria criteria(String term) {
+        if (term == null || term.isEmpty()) {
+            return new Criteria();
+        }
+        String normalized = NameGrams.normalize(term);
+        if (normalized.length() < NameGrams.SIZE) {
+            return Criteria.where(GRAMS_FIELD).regex("^" + escape(normalized));
+        }
+        return new Criteria().andOperator(
+                Criteria.where(GRAMS_FIELD).all(NameGrams.ofTerm(term)),
+                Criteria.where(NAME_FIELD).regex(escape(term), "i"));
+    }
+
+    /**
+     * Escapar o termo para que seja tratado literalmente no regex
+     */
+    static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (char c : value.toCharArray()) {
+            if (REGEX_METACHARACTERS.indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.app.repository;
 
+import com.example.app.dto.ProductSummary;
 import com.example.app.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -7,14 +8,13 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 /**
  * Repositório para operações com a entidade Product no MongoDB
  */
 @Repository
-public interface ProductRepository extends MongoRepository<Product, String> {
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
 
     /**
      * Buscar produtos por categoria
@@ -22,56 +22,53 @@ public interface ProductRepository extends MongoRepository<Product, String> {
     List<Product> findByCategory(String category);
 
     /**
-     * Buscar produtos disponíveis
+     * Resumos dos produtos disponíveis (projeção)
      */
-    List<Product> findByAvailableTrue();
+    @ReadRouting
+    List<ProductSummary> findSummariesByAvailableTrue();
 
     /**
-     * Buscar produtos por categoria e disponibilidade
+     * Resumos dos produtos disponíveis de uma categoria (projeção)
      */
-    List<Product> findByCategoryAndAvailableTrue(String category);
+    @ReadRouting
+    List<ProductSummary> findSummariesByCategoryAndAvailableTrue(String category);
 
     /**
-     * Buscar produtos por nome (case insensitive)
+     * Buscar produtos disponíveis com preço entre os limites (inclusivos, em centavos), do mais barato ao mais caro
      */
-    @Query("{'name': {$regex: ?0, $options: 'i'}}")
-    List<Product> findByNameContainingIgnoreCase(String name);
-
-    /**
-     * Buscar produtos por faixa de preço
-     */
-    List<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
+    @ReadRouting
+    @Query(value = "{'available': true, 'priceCents': {$gte: ?0, $lte: ?1}}", sort = "{'priceCents': 1}")
+    List<Product> findAvailableByPriceCentsRange(long minCents, long maxCents);
 
     /**
      * Buscar produtos por tag
      */
+    @ReadRouting
     @Query("{'tags': {$in: [?0]}}")
     List<Product> findByTagsContaining(String tag);
 
     /**
      * Buscar produtos disponíveis com paginação
      */
+    @ReadRouting
     Page<Product> findByAvailableTrue(Pageable pageable);
 
     /**
      * Buscar produtos por categoria com paginação
      */
+    @ReadRouting
     Page<Product> findByCategoryAndAvailableTrue(String category, Pageable pageable);
 
-    /**
-     * Buscar produtos por nome com paginação
-     */
-    @Query("{'name': {$regex: ?0, $options: 'i'}, 'available': true}")
-    Page<Product> findByNameContainingIgnoreCaseAndAvailableTrue(String name, Pageable pageable);
-
     /**
      * Contar produtos por categoria
      */
+    @ReadRouting
     long countByCategory(String category);
 
     /**
      * Contar produtos disponíveis
      */
+    @ReadRouting
     long countByAvailableTrue();
 
     /**
@@ -79,11 +76,5 @@ public interface ProductRepository extends MongoRepository<Product, String> {
      */
     @Query("{'stock': {$lte: ?0}, 'available': true}")
     List<Product> findByStockLessThanEqualAndAvailableTrue(Integer maxStock);
-
-    /**
-     * Buscar categorias distintas
-     */
-    @Query(value = "{}", fields = "{'category': 1}")
-    List<Product> findDistinctCategories();
 }
 
@@ -0,0 +1,80 @@
+package com.example.app.repository;
+
+import com.example.app.dto.CatalogFacets;
+import com.example.app.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Consultas de produtos implementadas com MongoTemplate
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Campos aceitos na listagem por cursor (cada um com índice {available, campo, _id})
+     */
+    Set<String> CURSOR_SORT_FIELDS = Set.of("name", "createdDate", "priceCents");
+
+    /**
+     * Substituir o produto em uma única operação, condicionada à versão informada (se houver)
+     *
+     * Atualiza versão e auditoria do argumento como o save().
+     *
+     * @return documento anterior, ou nulo se o produto não existe
+     * @throws org.springframework.dao.OptimisticLockingFailureException se a versão está desatualizada
+     */
+    Product replaceVersioned(Product product);
+
+    /**
+     * Remover o produto em uma única operação (findAndRemove)
+     *
+     * @return documento removido, ou nulo se o produto não existe
+     */
+    Product removeById(String id);
+
+    /**
+     * Buscar produtos cujo nome contém o termo (case insensitive), via índice de n-gramas
+     */
+    @ReadRouting(ReadRouting.Mode.NEAREST)
+    List<Product> searchByName(String term);
+
+    /**
+     * Buscar produtos disponíveis cujo nome contém o termo, com paginação
+     */
+    @ReadRouting(ReadRouting.Mode.NEAREST)
+    Page<Product> searchAvailableByName(String term, Pageable pageable);
+
+    /**
+     * Listar produtos disponíveis por cursor (keyset), sem contagem
+     */
+    @ReadRouting
+    CursorPage<Product> findAvailableAfter(String cursor, String sortBy, Sort.Direction direction, int size);
+
+    /**
+     * Marcar o produto como indisponível em uma única operação (findAndModify); nulo se o produto não existe
+     */
+    Product deactivate(String id);
+
+    /**
+     * Definir o estoque em uma única operação (findAndModify); nulo se o produto não existe
+     */
+    Product setStock(String id, int stock);
+
+    /**
+     * Somar delta ao estoque de forma atômica ($inc em um findAndModify)
+     *
+     * Só aplica se o estoque resultante ficar entre floor e ceiling (nulos: sem limite).
+     * Retorna o documento atualizado, ou nulo se o produto não existe ou um limite seria violado.
+     */
+    Product adjustStock(String id, int delta, Integer floor, Integer ceiling);
+
+    /**
+     * Facetas do catálogo (categorias, tags, faixas de preço e disponibilidade) em uma agregação $facet
+     */
+    @ReadRouting
+    CatalogFacets catalogFacets();
+}
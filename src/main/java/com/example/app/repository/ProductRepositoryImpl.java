@@ -0,0 +1,177 @@
+package com.example.app.repository;
+
+import com.example.app.dto.CatalogFacets;
+import com.example.app.entity.Product;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Implementação das consultas customizadas de produtos
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    /**
+     * Limites inferiores das faixas de preço; a última faixa é aberta
+     */
+    private static final List<Integer> PRICE_BOUNDARIES = List.of(0, 50, 100, 250, 500, 1000, 2500, 5000);
+
+    private static final int MAX_TAGS = 50;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Override
+    public Product replaceVersioned(Product product) {
+        return VersionedReplace.replace(mongoTemplate, auditorAware, product.getId(), product, Product.class);
+    }
+
+    @Override
+    public Product removeById(String id) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where("_id").is(id)), Product.class);
+    }
+
+    @Override
+    public List<Product> searchByName(String term) {
+        return mongoTemplate.find(new Query(NameSearch.criteria(term)), Product.class);
+    }
+
+    @Override
+    public Page<Product> searchAvailableByName(String term, Pageable pageable) {
+        Query query = new Query(new Criteria().andOperator(
+                NameSearch.criteria(term),
+                Criteria.where("available").is(true)));
+        List<Product> products = mongoTemplate.find(Query.of(query).with(pageable), Product.class);
+        return PageableExecutionUtils.getPage(products, pageable,
+                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Product.class));
+    }
+
+    @Override
+    public CursorPage<Product> findAvailableAfter(String cursor, String sortBy, Sort.Direction direction, int size) {
+        return Keyset.page(mongoTemplate, Product.class, Criteria.where("available").is(true),
+                CURSOR_SORT_FIELDS, sortBy, direction, cursor, size);
+    }
+
+    @Override
+    public Product deactivate(String id) {
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(id)),
+                touch(new Update().set("available", false)),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+    }
+
+    @Override
+    public Product setStock(String id, int stock) {
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(id)),
+                touch(new Update().set("stock", stock)),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+    }
+
+    @Override
+    public Product adjustStock(String id, int delta, Integer floor, Integer ceiling) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        // Limites expressos sobre o valor atual: stock + delta >= floor e stock + delta <= ceiling
+        if (floor != null && ceiling != null) {
+            query.addCriteria(Criteria.where("stock").gte((long) floor - delta).lte((long) ceiling - delta));
+        } else if (floor != null) {
+            query.addCriteria(Criteria.where("stock").gte((long) floor - delta));
+        } else if (ceiling != null) {
+            query.addCriteria(Criteria.where("stock").lte((long) ceiling - delta));
+        }
+        return mongoTemplate.findAndModify(query, touch(new Update().inc("stock", delta)),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+    }
+
+    /**
+     * Incluir na atualização a versão e a auditoria de modificação (não aplicadas automaticamente em updates)
+     */
+    private Update touch(Update update) {
+        return update
+                .inc("version", 1)
+                .set("lastModifiedDate", new Date())
+                .set("lastModifiedBy", auditorAware.getCurrentAuditor().orElse(null));
+    }
+
+    @Override
+    public CatalogFacets catalogFacets() {
+        Criteria available = Criteria.where("available").is(true);
+        // Limites das faixas em centavos, comparados a priceCents (inteiro e indexado)
+        Object[] boundaries = PRICE_BOUNDARIES.stream().map(boundary -> boundary * 100L).toArray();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.facet(
+                                Aggregation.match(available),
+                                Aggregation.group("category").count().as("count"),
+                                Aggregation.sort(Sort.Direction.DESC, "count"))
+                        .as("categories")
+                        .and(
+                                Aggregation.match(available),
+                                Aggregation.unwind("tags"),
+                                Aggregation.group("tags").count().as("count"),
+                                Aggregation.sort(Sort.Direction.DESC, "count"),
+                                Aggregation.limit(MAX_TAGS))
+                        .as("tags")
+                        .and(
+                                Aggregation.match(new Criteria().andOperator(available, Criteria.where("priceCents").ne(null))),
+                                Aggregation.bucket("priceCents")
+                                        .withBoundaries(boundaries)
+                                        .withDefaultBucket(boundaries[boundaries.length - 1])
+                                        .andOutputCount().as("count"))
+                        .as("priceRanges")
+                        .and(Aggregation.group("available").count().as("count"))
+                        .as("availability"));
+
+        Document result = mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Product.class),
+                Document.class).getUniqueMappedResult();
+
+        CatalogFacets facets = new CatalogFacets();
+        if (result == null) {
+            return facets;
+        }
+        facets.setCategories(facetCounts(result.getList("categories", Document.class)));
+        facets.setTags(facetCounts(result.getList("tags", Document.class)));
+        for (Document bucket : result.getList("priceRanges", Document.class)) {
+            int lower = (int) (((Number) bucket.get("_id")).longValue() / 100);
+            int index = PRICE_BOUNDARIES.indexOf(lower);
+            BigDecimal max = index >= 0 && index + 1 < PRICE_BOUNDARIES.size()
+                    ? BigDecimal.valueOf(PRICE_BOUNDARIES.get(index + 1)) : null;
+            facets.getPriceRanges().add(new CatalogFacets.PriceRange(BigDecimal.valueOf(lower), max, count(bucket)));
+        }
+        for (Document availability : result.getList("availability", Document.class)) {
+            if (Boolean.TRUE.equals(availability.get("_id"))) {
+                facets.setAvailable(count(availability));
+            } else {
+                facets.setUnavailable(facets.getUnavailable() + count(availability));
+            }
+        }
+        return facets;
+    }
+
+    private static List<CatalogFacets.FacetCount> facetCounts(List<Document> documents) {
+        return documents.stream()
+                .filter(document -> document.get("_id") != null)
+                .map(document -> new CatalogFacets.FacetCount(document.get("_id").toString(), count(document)))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static long count(Document document) {
+        return ((Number) document.get("count")).longValue();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.app.repository;
+
+import com.example.app.dto.ProductSummary;
+import com.example.app.entity.Product;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Repositório reativo para as leituras de produtos do perfil reactive
+ */
+@Repository
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String> {
+
+    /**
+     * Resumos dos produtos disponíveis (projeção)
+     */
+    Flux<ProductSummary> findSummariesByAvailableTrue();
+
+    /**
+     * Resumos dos produtos disponíveis de uma categoria (projeção)
+     */
+    Flux<ProductSummary> findSummariesByCategoryAndAvailableTrue(String category);
+}
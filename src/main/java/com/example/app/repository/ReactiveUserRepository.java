@@ -0,0 +1,19 @@
+package com.example.app.repository;
+
+import com.example.app.dto.UserSummary;
+import com.example.app.entity.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Repositório reativo para as leituras de usuários do perfil reactive
+ */
+@Repository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+
+    /**
+     * Resumos dos usuários ativos (projeção)
+     */
+    Flux<UserSummary> findSummariesByActiveTrue();
+}
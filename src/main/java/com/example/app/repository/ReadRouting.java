@@ -0,0 +1,41 @@
+package com.example.app.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Encaminha as leituras do método para secundários do replica set
+ *
+ * Vale para métodos de repositório e de serviços: toda leitura feita pelo
+ * MongoTemplate durante a chamada usa a preferência declarada (ver
+ * {@link RoutingMongoTemplate}). Só deve marcar leituras que toleram dados
+ * defasados; escritas e buscas logo após uma escrita continuam no primário.
+ * Em chamadas aninhadas vale a primeira marcação.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadRouting {
+
+    Mode value() default Mode.SECONDARY_PREFERRED;
+
+    /**
+     * Defasagem máxima aceita, em segundos (o MongoDB exige ao menos 90);
+     * negativo usa app.mongo.read-routing.max-staleness
+     */
+    long maxStalenessSeconds() default -1;
+
+    enum Mode {
+        /** Primário, ou um secundário quando não há primário */
+        PRIMARY_PREFERRED,
+        /** Secundário, ou o primário quando não há secundário disponível */
+        SECONDARY_PREFERRED,
+        /** Apenas secundários */
+        SECONDARY,
+        /** Membro de menor latência, primário ou secundário */
+        NEAREST
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.app.repository;
+
+import com.example.app.config.AppConfig.AppProperties;
+import com.mongodb.ReadPreference;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica a preferência de leitura de {@link ReadRouting} à thread durante a chamada
+ */
+public class ReadRoutingInterceptor implements MethodInterceptor {
+
+    private static final ThreadLocal<ReadPreference> CURRENT = new ThreadLocal<>();
+
+    private final ObjectProvider<AppProperties> appProperties;
+    private final Map<Method, Optional<ReadPreference>> preferences = new ConcurrentHashMap<>();
+
+    public ReadRoutingInterceptor(ObjectProvider<AppProperties> appProperties) {
+        this.appProperties = appProperties;
+    }
+
+    /**
+     * Preferência de leitura em vigor na thread atual, ou null (primário)
+     */
+    static ReadPreference current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (CURRENT.get() != null) {
+            return invocation.proceed();
+        }
+        ReadPreference preference = preferences
+                .computeIfAbsent(invocation.getMethod(), this::resolve)
+                .orElse(null);
+        if (preference == null) {
+            return invocation.proceed();
+        }
+        CURRENT.set(preference);
+        try {
+            return invocation.proceed();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    private Optional<ReadPreference> resolve(Method method) {
+        AppProperties.Mongo.ReadRouting properties = appProperties.getObject().getMongo().getReadRouting();
+        ReadRouting routing = AnnotatedElementUtils.findMergedAnnotation(method, ReadRouting.class);
+        if (routing == null || !properties.isEnabled()) {
+            return Optional.empty();
+        }
+        long maxStaleness = routing.maxStalenessSeconds() >= 0
+                ? routing.maxStalenessSeconds()
+                : properties.getMaxStaleness();
+        return Optional.of(readPreference(routing.value(), maxStaleness));
+    }
+
+    private static ReadPreference readPreference(ReadRouting.Mode mode, long maxStalenessSeconds) {
+        if (maxStalenessSeconds <= 0) {
+            return switch (mode) {
+                case PRIMARY_PREFERRED -> ReadPreference.primaryPreferred();
+                case SECONDARY_PREFERRED -> ReadPreference.secondaryPreferred();
+                case SECONDARY -> ReadPreference.secondary();
+                case NEAREST -> ReadPreference.nearest();
+            };
+        }
+        return switch (mode) {
+            case PRIMARY_PREFERRED -> ReadPreference.primaryPreferred(maxStalenessSeconds, TimeUnit.SECONDS);
+            case SECONDARY_PREFERRED -> ReadPreference.secondaryPreferred(maxStalenessSeconds, TimeUnit.SECONDS);
+            case SECONDARY -> ReadPreference.secondary(maxStalenessSeconds, TimeUnit.SECONDS);
+            case NEAREST -> ReadPreference.nearest(maxStalenessSeconds, TimeUnit.SECONDS);
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.app.repository;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * MongoTemplate que lê com a preferência do {@link ReadRouting} em vigor na thread
+ *
+ * Sem marcação as leituras vão para o primário. Uma preferência definida na
+ * própria Query continua prevalecendo. Escritas sempre vão para o primário.
+ */
+public class RoutingMongoTemplate extends MongoTemplate {
+
+    public RoutingMongoTemplate(MongoDatabaseFactory mongoDbFactory, MongoConverter mongoConverter) {
+        super(mongoDbFactory, mongoConverter);
+    }
+
+    @Override
+    public boolean hasReadPreference() {
+        return ReadRoutingInterceptor.current() != null || super.hasReadPreference();
+    }
+
+    @Override
+    public ReadPreference getReadPreference() {
+        ReadPreference routed = ReadRoutingInterceptor.current();
+        return routed != null ? routed : super.getReadPreference();
+    }
+
+    @Override
+    protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+        ReadPreference routed = ReadRoutingInterceptor.current();
+        return routed != null ? collection.withReadPreference(routed) : super.prepareCollection(collection);
+    }
+}
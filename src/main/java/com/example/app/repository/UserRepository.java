@@ -1,10 +1,10 @@
 package com.example.app.repository;
 
+import com.example.app.dto.UserSummary;
 import com.example.app.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,7 +14,7 @@ import java.util.Optional;
  * Repositório para operações com a entidade User no MongoDB
  */
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
 
     /**
      * Buscar usuário por email
@@ -27,30 +27,21 @@ public interface UserRepository extends MongoRepository<User, String> {
     boolean existsByEmail(String email);
 
     /**
-     * Buscar usuários ativos
+     * Resumos dos usuários ativos (projeção)
      */
-    List<User> findByActiveTrue();
-
-    /**
-     * Buscar usuários por nome (case insensitive)
-     */
-    @Query("{'name': {$regex: ?0, $options: 'i'}}")
-    List<User> findByNameContainingIgnoreCase(String name);
+    @ReadRouting
+    List<UserSummary> findSummariesByActiveTrue();
 
     /**
      * Buscar usuários ativos com paginação
      */
+    @ReadRouting
     Page<User> findByActiveTrue(Pageable pageable);
 
-    /**
-     * Buscar usuários por nome com paginação
-     */
-    @Query("{'name': {$regex: ?0, $options: 'i'}, 'active': true}")
-    Page<User> findByNameContainingIgnoreCaseAndActiveTrue(String name, Pageable pageable);
-
     /**
      * Contar usuários ativos
      */
+    @ReadRouting
     long countByActiveTrue();
 
     /**
@@ -0,0 +1,60 @@
+package com.example.app.repository;
+
+import com.example.app.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Consultas de usuários implementadas com MongoTemplate
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Campos aceitos na listagem por cursor (cada um com índice {active, campo, _id})
+     */
+    Set<String> CURSOR_SORT_FIELDS = Set.of("name", "createdDate");
+
+    /**
+     * Substituir o usuário em uma única operação, condicionada à versão informada (se houver)
+     *
+     * Atualiza versão e auditoria do argumento como o save().
+     *
+     * @return documento anterior, ou nulo se o usuário não existe
+     * @throws org.springframework.dao.OptimisticLockingFailureException se a versão está desatualizada
+     */
+    User replaceVersioned(User user);
+
+    /**
+     * Remover o usuário em uma única operação (findAndRemove)
+     *
+     * @return documento removido, ou nulo se o usuário não existe
+     */
+    User removeById(String id);
+
+    /**
+     * Marcar o usuário como inativo em uma única operação (findAndModify); nulo se o usuário não existe
+     */
+    User deactivate(String id);
+
+    /**
+     * Buscar usuários cujo nome contém o termo (case insensitive), via índice de n-gramas
+     */
+    @ReadRouting(ReadRouting.Mode.NEAREST)
+    List<User> searchByName(String term);
+
+    /**
+     * Buscar usuários ativos cujo nome contém o termo, com paginação
+     */
+    @ReadRouting(ReadRouting.Mode.NEAREST)
+    Page<User> searchActiveByName(String term, Pageable pageable);
+
+    /**
+     * Listar usuários ativos por cursor (keyset), sem contagem
+     */
+    @ReadRouting
+    CursorPage<User> findActiveAfter(String cursor, String sortBy, Sort.Direction direction, int size);
+}
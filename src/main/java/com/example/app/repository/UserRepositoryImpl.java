@@ -0,0 +1,71 @@
+package com.example.app.repository;
+
+import com.example.app.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Implementação das consultas customizadas de usuários
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Override
+    public User replaceVersioned(User user) {
+        return VersionedReplace.replace(mongoTemplate, auditorAware, user.getId(), user, User.class);
+    }
+
+    @Override
+    public User removeById(String id) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where("_id").is(id)), User.class);
+    }
+
+    @Override
+    public User deactivate(String id) {
+        Update update = new Update()
+                .set("active", false)
+                .inc("version", 1)
+                .set("lastModifiedDate", new Date())
+                .set("lastModifiedBy", auditorAware.getCurrentAuditor().orElse(null));
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), User.class);
+    }
+
+    @Override
+    public List<User> searchByName(String term) {
+        return mongoTemplate.find(new Query(NameSearch.criteria(term)), User.class);
+    }
+
+    @Override
+    public Page<User> searchActiveByName(String term, Pageable pageable) {
+        Query query = new Query(new Criteria().andOperator(
+                NameSearch.criteria(term),
+                Criteria.where("active").is(true)));
+        List<User> users = mongoTemplate.find(Query.of(query).with(pageable), User.class);
+        return PageableExecutionUtils.getPage(users, pageable,
+                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), User.class));
+    }
+
+    @Override
+    public CursorPage<User> findActiveAfter(String cursor, String sortBy, Sort.Direction direction, int size) {
+        return Keyset.page(mongoTemplate, User.class, Criteria.where("active").is(true),
+                CURSOR_SORT_FIELDS, sortBy, direction, cursor, size);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.app.repository;
+
+import com.example.app.entity.BaseEntity;
+import org.bson.Document;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Substituição condicional pela versão em uma única operação
+ *
+ * Um findAndModify com pipeline troca o documento só se a versão gravada for
+ * a esperada ($cond sobre $$ROOT), preservando a auditoria de criação e
+ * incrementando a versão. O documento anterior retornado basta para distinguir
+ * os resultados: ausente (não encontrado), versão diferente (conflito) ou
+ * aplicado. Sem versão informada, a substituição é incondicional.
+ */
+final class VersionedReplace {
+
+    private VersionedReplace() {
+    }
+
+    /**
+     * Substituir o documento de mesmo ID; atualiza versão e auditoria de {@code entity} como o save()
+     *
+     * @return documento anterior, ou nulo se não existe
+     * @throws OptimisticLockingFailureException se a versão gravada não é a de {@code entity}
+     */
+    static <T extends BaseEntity> T replace(MongoTemplate mongoTemplate, AuditorAware<String> auditorAware,
+                                            String id, T entity, Class<T> type) {
+        Long expectedVersion = entity.getVersion();
+        entity.setLastModifiedDate(ZonedDateTime.now(ZoneOffset.UTC));
+        entity.setLastModifiedBy(auditorAware.getCurrentAuditor().orElse(null));
+
+        Document replacement = new Document();
+        mongoTemplate.getConverter().write(entity, replacement);
+        replacement.remove("createdDate");
+        replacement.remove("createdBy");
+        replacement.remove("version");
+
+        Document currentVersion = new Document("$ifNull", Arrays.asList("$version", 0L));
+        // $literal: valores da entidade nunca são interpretados como expressões ("$...")
+        Document next = new Document("$mergeObjects", List.of(
+                new Document("$literal", replacement),
+                new Document("createdDate", "$createdDate")
+                        .append("createdBy", "$createdBy")
+                        .append("version", new Document("$add", List.of(currentVersion, 1L)))));
+        Object newRoot = expectedVersion == null ? next
+                : new Document("$cond", Arrays.asList(
+                        new Document("$eq", Arrays.asList(currentVersion, expectedVersion)), next, "$$ROOT"));
+        AggregationUpdate update = AggregationUpdate.from(List.of(context -> new Document("$replaceWith", newRoot)));
+
+        T previous = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(false), type);
+        if (previous == null) {
+            return null;
+        }
+        long previousVersion = previous.getVersion() != null ? previous.getVersion() : 0L;
+        if (expectedVersion != null && previousVersion != expectedVersion) {
+            throw new OptimisticLockingFailureException("Versão " + expectedVersion + " desatualizada (atual: "
+                    + previousVersion + ")");
+        }
+        entity.setVersion(previousVersion + 1);
+        entity.setCreatedDate(previous.getCreatedDate());
+        entity.setCreatedBy(previous.getCreatedBy());
+        return previous;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.app.service;
+
+import com.example.app.config.AppConfig.AppProperties;
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import com.example.app.repository.ReadRouting;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação das coleções em NDJSON (um documento JSON por linha)
+ *
+ * Os documentos são lidos de um cursor do Mongo em lotes de app.export.batch-size
+ * e escritos diretamente na saída, sem ordenação nem cache: a memória usada não
+ * depende do tamanho da coleção. A escrita bloqueia quando o cliente lê devagar,
+ * e o próximo lote do cursor só é buscado depois que o anterior foi escrito.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final SerializedString LINE_SEPARATOR = new SerializedString("\n");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    /**
+     * Escrever os produtos que atendem aos filtros (todos opcionais)
+     *
+     * @return quantidade de produtos escritos
+     */
+    @ReadRouting
+    public long exportProducts(String category, Boolean available, Instant modifiedSince, OutputStream out)
+            throws IOException {
+        Query query = new Query();
+        if (category != null) {
+            query.addCriteria(Criteria.where("category").is(category));
+        }
+        if (available != null) {
+            query.addCriteria(Criteria.where("available").is(available));
+        }
+        return export(query, modifiedSince, Product.class, out);
+    }
+
+    /**
+     * Escrever os usuários que atendem aos filtros (todos opcionais)
+     *
+     * @return quantidade de usuários escritos
+     */
+    @ReadRouting
+    public long exportUsers(Boolean active, Instant modifiedSince, OutputStream out) throws IOException {
+        Query query = new Query();
+        if (active != null) {
+            query.addCriteria(Criteria.where("active").is(active));
+        }
+        return export(query, modifiedSince, User.class, out);
+    }
+
+    private <T> long export(Query query, Instant modifiedSince, Class<T> type, OutputStream out) throws IOException {
+        if (modifiedSince != null) {
+            query.addCriteria(Criteria.where("lastModifiedDate").gte(Date.from(modifiedSince)));
+        }
+        query.fields().exclude("nameGrams");
+        query.cursorBatchSize(Math.max(1, appProperties.getExport().getBatchSize()));
+
+        // Sem flush por documento: a saída é enviada conforme os buffers enchem
+        ObjectWriter writer = objectMapper.writerFor(type)
+                .withRootValueSeparator(LINE_SEPARATOR)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long start = System.currentTimeMillis();
+        long count = 0;
+
+        try (Stream<T> documents = mongoTemplate.stream(query, type);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(LINE_SEPARATOR);
+            Iterator<T> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                count++;
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            // Cliente desconectado: o cursor é fechado pelo try-with-resources
+            logger.info("Exportação de {} interrompida após {} documentos: {}", type.getSimpleName(), count, e.getMessage());
+            throw e;
+        }
+
+        logger.info("Exportação de {} concluída em {} ms: {} documentos", type.getSimpleName(),
+                System.currentTimeMillis() - start, count);
+        return count;
+    }
+}
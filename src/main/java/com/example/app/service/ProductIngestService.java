@@ -0,0 +1,326 @@
+package com.example.app.service;
+
+import com.example.app.cache.CacheBatchOperations;
+import com.example.app.cache.CacheGenerations;
+import com.example.app.cache.ExistenceFilters;
+import com.example.app.config.AppConfig.AppProperties;
+import com.example.app.dto.BulkUpsertResult;
+import com.example.app.entity.Product;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ingestão em lote de produtos (feed do catálogo)
+ *
+ * O corpo é lido como stream: cada item do array JSON é convertido e validado
+ * individualmente, e os válidos são agrupados em bulk writes não ordenados de
+ * app.bulk.batch-size upserts. Cada item substitui o produto com o mesmo ID
+ * (ou cria um novo), preservando a auditoria de criação e incrementando a
+ * versão. Um ID repetido no mesmo lote vale pelo último item; os anteriores
+ * são rejeitados. Por lote, uma consulta lê o estado anterior, outra relê os
+ * documentos gravados para o cache "products" (atualizado em um pipeline) e as
+ * gerações afetadas são incrementadas uma única vez.
+ */
+@Service
+public class ProductIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductIngestService.class);
+
+    private static final Set<String> AUDIT_FIELDS = Set.of("createdDate", "createdBy", "lastModifiedDate", "lastModifiedBy");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheBatchOperations cacheBatchOperations;
+
+    @Autowired
+    private CacheGenerations cacheGenerations;
+
+    @Autowired
+    private ExistenceFilters existenceFilters;
+
+    @Autowired
+    private AppProperties appProperties;
+
+    /**
+     * Inserir ou substituir os produtos de um array JSON lido do stream
+     *
+     * @throws IllegalArgumentException se o corpo não for um array JSON
+     */
+    public BulkUpsertResult upsertProducts(InputStream body) throws IOException {
+        AppProperties.Bulk properties = appProperties.getBulk();
+        int batchSize = Math.max(1, properties.getBatchSize());
+        BulkUpsertResult result = new BulkUpsertResult();
+        List<Item> batch = new ArrayList<>(batchSize);
+        long start = System.currentTimeMillis();
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("O corpo deve ser um array JSON de produtos");
+            }
+            long index = 0;
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new JsonParseException(parser, "Array JSON incompleto");
+                    }
+                    long position = index++;
+                    result.setReceived(index);
+                    JsonNode node = parser.readValueAsTree();
+                    Product product;
+                    try {
+                        product = objectMapper.treeToValue(node, Product.class);
+                    } catch (JsonProcessingException e) {
+                        reject(result, position, node.path("id").asText(null), "Item inválido: " + e.getOriginalMessage());
+                        continue;
+                    }
+                    String violations = validate(product);
+                    if (violations != null) {
+                        reject(result, position, product.getId(), violations);
+                        continue;
+                    }
+                    batch.add(new Item(position, product));
+                    if (batch.size() >= batchSize) {
+                        write(batch, result);
+                        batch.clear();
+                    }
+                }
+            } catch (JsonParseException e) {
+                // Os itens já lidos são gravados; o restante do corpo é descartado
+                reject(result, index, null, "JSON malformado, itens seguintes ignorados: " + e.getOriginalMessage());
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch, result);
+        }
+
+        logger.info("Ingestão em lote concluída em {} ms: {} recebidos, {} inseridos, {} atualizados, {} rejeitados",
+                System.currentTimeMillis() - start, result.getReceived(), result.getInserted(), result.getUpdated(),
+                result.getFailed());
+        return result;
+    }
+
+    private String validate(Product product) {
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void write(List<Item> batch, BulkUpsertResult result) {
+        List<Item> items = distinct(batch, result);
+        Map<String, Product> previous = findPrevious(items);
+
+        Instant now = Instant.now();
+        String auditor = auditorAware.getCurrentAuditor().orElse(null);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (Item item : items) {
+            bulk.upsert(new Query(Criteria.where("_id").is(item.product.getId())),
+                    toUpdate(item.product, Date.from(now), auditor));
+        }
+
+        BulkWriteResult outcome;
+        Set<Integer> failed = new HashSet<>();
+        try {
+            outcome = bulk.execute();
+        } catch (BulkOperationException e) {
+            outcome = e.getResult();
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+                Item item = items.get(error.getIndex());
+                reject(result, item.index, item.product.getId(), error.getMessage());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Erro ao gravar lote de {} produtos: {}", items.size(), e.getMessage());
+            items.forEach(item -> reject(result, item.index, item.product.getId(), "Erro ao gravar: " + e.getMessage()));
+            return;
+        }
+
+        // Inserções segundo o servidor (upserts), não segundo a leitura prévia
+        Set<Integer> upserted = new HashSet<>();
+        outcome.getUpserts().forEach(upsert -> upserted.add(upsert.getIndex()));
+        List<String> written = new ArrayList<>();
+        List<String> insertedIds = new ArrayList<>();
+        List<String> categories = new ArrayList<>();
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (failed.contains(i)) {
+                continue;
+            }
+            Product product = items.get(i).product;
+            if (upserted.contains(i)) {
+                result.setInserted(result.getInserted() + 1);
+                insertedIds.add(product.getId());
+            } else {
+                result.setUpdated(result.getUpdated() + 1);
+            }
+            Product before = previous.get(product.getId());
+            if (before != null) {
+                categories.add(before.getCategory());
+                if (before.getTags() != null) {
+                    tags.addAll(before.getTags());
+                }
+            }
+            categories.add(product.getCategory());
+            if (product.getTags() != null) {
+                tags.addAll(product.getTags());
+            }
+            written.add(product.getId());
+        }
+        if (written.isEmpty()) {
+            return;
+        }
+
+        existenceFilters.addProducts(insertedIds);
+        Cache cache = cacheManager.getCache("products");
+        if (cache != null) {
+            try {
+                cacheBatchOperations.putAll(cache, findWritten(written));
+            } catch (Exception e) {
+                logger.warn("Erro ao gravar produtos no cache em lote: {}", e.getMessage());
+            }
+        }
+        cacheGenerations.bumpProducts(categories, tags);
+    }
+
+    /**
+     * Itens do lote com ID único: gera os IDs ausentes e, para IDs repetidos,
+     * mantém o último item e rejeita os anteriores
+     */
+    private List<Item> distinct(List<Item> batch, BulkUpsertResult result) {
+        Map<String, Item> byId = new LinkedHashMap<>();
+        for (Item item : batch) {
+            if (item.product.getId() == null) {
+                item.product.setId(new ObjectId().toHexString());
+            }
+            Item replaced = byId.remove(item.product.getId());
+            if (replaced != null) {
+                reject(result, replaced.index, replaced.product.getId(),
+                        "ID repetido no lote, substituído pelo item " + item.index);
+            }
+            byId.put(item.product.getId(), item);
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Estado anterior (categoria e tags) dos produtos do lote que já existem
+     */
+    private Map<String, Product> findPrevious(List<Item> items) {
+        List<String> ids = items.stream().map(item -> item.product.getId()).toList();
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("category", "tags");
+        Map<String, Product> previous = new HashMap<>();
+        mongoTemplate.find(query, Product.class).forEach(product -> previous.put(product.getId(), product));
+        return previous;
+    }
+
+    /**
+     * Documentos gravados como estão no banco (versão e auditoria atribuídas pelo servidor)
+     */
+    private Map<String, Product> findWritten(List<String> ids) {
+        Map<String, Product> written = new LinkedHashMap<>();
+        mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), Product.class)
+                .forEach(product -> written.put(product.getId(), product));
+        return written;
+    }
+
+    /**
+     * Substituição completa do documento, exceto _id, versão (incrementada) e
+     * auditoria de criação (só gravada na inserção)
+     */
+    private Update toUpdate(Product product, Date now, String auditor) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(product, document);
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(Product.class);
+
+        Update update = new Update();
+        for (MongoPersistentProperty property : entity) {
+            String field = property.getFieldName();
+            if (property.isIdProperty() || property.isVersionProperty() || AUDIT_FIELDS.contains(field)) {
+                continue;
+            }
+            if (document.containsKey(field)) {
+                update.set(field, document.get(field));
+            } else {
+                update.unset(field);
+            }
+        }
+        return update
+                .inc("version", 1)
+                .set("lastModifiedDate", now)
+                .set("lastModifiedBy", auditor)
+                .setOnInsert("createdDate", now)
+                .setOnInsert("createdBy", auditor);
+    }
+
+    private void reject(BulkUpsertResult result, long index, String id, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < appProperties.getBulk().getMaxReportedErrors()) {
+            result.getErrors().add(new BulkUpsertResult.ItemError(index, id, message));
+        }
+    }
+
+    /**
+     * Produto válido e sua posição no corpo da requisição
+     */
+    private record Item(long index, Product product) {
+    }
+}
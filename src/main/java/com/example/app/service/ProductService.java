@@ -1,41 +1,95 @@
 package com.example.app.service;
 
+import com.example.app.cache.CacheBatchOperations;
+import com.example.app.cache.CacheGenerations;
+import com.example.app.cache.ExistenceFilters;
+import com.example.app.config.AppConfig.AppProperties;
+import com.example.app.dto.CatalogFacets;
+import com.example.app.dto.ProductSummary;
+import com.example.app.dto.StockAdjustment;
+import com.example.app.dto.StockAdjustmentResult;
+import com.example.app.entity.PriceCents;
 import com.example.app.entity.Product;
+import com.example.app.repository.CursorPage;
 import com.example.app.repository.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 /**
  * Serviço para operações com produtos
  * 
- * Implementa cache Redis para melhorar performance
+ * Implementa cache Redis para melhorar performance. Os caches de listas e
+ * contagens usam chaves com geração: escritas incrementam apenas as gerações
+ * afetadas (global, categoria e tags) em vez de limpar os caches.
  */
 @Service
 public class ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
 
+    private static final String PRICE = "price";
+    private static final String PRICE_CENTS = "priceCents";
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CacheGenerations cacheGenerations;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheBatchOperations cacheBatchOperations;
+
+    @Autowired
+    private ExistenceFilters existenceFilters;
+
+    @Autowired
+    private AppProperties appProperties;
+
     /**
      * Criar novo produto
      */
     @CachePut(value = "products", key = "#result.id", condition = "#result != null")
     public Product createProduct(Product product) {
         logger.info("Criando novo produto: {}", product.getName());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        existenceFilters.addProduct(saved.getId());
+        bumpGenerations(null, saved);
+        return saved;
+    }
+
+    /**
+     * Verificar pelo filtro de existência se o produto pode existir (sem consultar Redis/MongoDB)
+     */
+    public boolean mightExist(String id) {
+        return existenceFilters.mightContainProduct(id);
     }
 
     /**
@@ -48,17 +102,63 @@ public class ProductService {
     }
 
     /**
-     * Atualizar produto
+     * Buscar vários produtos por ID (com cache)
+     *
+     * Lê o cache "products" em lote, carrega do MongoDB apenas os ausentes e os
+     * grava de volta no cache em uma única operação. O resultado segue a ordem
+     * dos IDs informados; IDs inexistentes são omitidos.
+     */
+    public List<Product> findAllById(List<String> ids) {
+        logger.info("Buscando {} produtos por ID em lote", ids.size());
+
+        List<String> distinctIds = ids.stream().distinct().filter(existenceFilters::mightContainProduct).toList();
+        Cache cache = cacheManager.getCache("products");
+        Map<String, Product> found = new HashMap<>();
+        if (cache != null) {
+            try {
+                cacheBatchOperations.getAll(cache, distinctIds).forEach((id, value) -> {
+                    if (value instanceof Product product) {
+                        found.put(id, product);
+                    }
+                });
+            } catch (Exception e) {
+                logger.warn("Erro ao ler produtos do cache em lote: {}", e.getMessage());
+            }
+        }
+
+        List<String> missingIds = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missingIds.isEmpty()) {
+            Map<String, Product> loaded = new HashMap<>();
+            productRepository.findAllById(missingIds).forEach(product -> loaded.put(product.getId(), product));
+            found.putAll(loaded);
+            if (cache != null && !loaded.isEmpty()) {
+                try {
+                    cacheBatchOperations.putAll(cache, loaded);
+                } catch (Exception e) {
+                    logger.warn("Erro ao gravar produtos no cache em lote: {}", e.getMessage());
+                }
+            }
+        }
+
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Atualizar produto (uma única operação, condicionada à versão informada)
+     *
+     * @throws IllegalArgumentException se o produto não existe
+     * @throws org.springframework.dao.OptimisticLockingFailureException se a versão está desatualizada
      */
     @CachePut(value = "products", key = "#product.id")
     public Product updateProduct(Product product) {
-        logger.info("Atualizando produto: {}", product.getId());
+        logger.info("Atualizando produto: {} (versão {})", product.getId(), product.getVersion());
         
-        if (!productRepository.existsById(product.getId())) {
+        Product previous = productRepository.replaceVersioned(product);
+        if (previous == null) {
             throw new IllegalArgumentException("Produto não encontrado: " + product.getId());
         }
-        
-        return productRepository.save(product);
+        bumpGenerations(previous, product);
+        return product;
     }
 
     /**
@@ -68,34 +168,35 @@ public class ProductService {
     public void deleteProduct(String id) {
         logger.info("Deletando produto: {}", id);
         
-        if (!productRepository.existsById(id)) {
+        Product removed = productRepository.removeById(id);
+        if (removed == null) {
             throw new IllegalArgumentException("Produto não encontrado: " + id);
         }
-        
-        productRepository.deleteById(id);
+        bumpGenerations(removed, null);
     }
 
     /**
-     * Desativar produto (soft delete)
+     * Desativar produto (soft delete, uma única operação no MongoDB)
      */
     @CachePut(value = "products", key = "#id")
     public Product deactivateProduct(String id) {
         logger.info("Desativando produto: {}", id);
         
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Produto não encontrado: " + id));
-        
-        product.setAvailable(false);
-        return productRepository.save(product);
+        Product saved = productRepository.deactivate(id);
+        if (saved == null) {
+            throw new IllegalArgumentException("Produto não encontrado: " + id);
+        }
+        bumpGenerations(null, saved);
+        return saved;
     }
 
     /**
-     * Listar todos os produtos disponíveis
+     * Listar resumos de todos os produtos disponíveis
      */
-    @Cacheable(value = "availableProducts")
-    public List<Product> findAvailableProducts() {
+    @Cacheable(value = "availableProductSummaries", key = "@cacheGenerations.productKey()", sync = true)
+    public List<ProductSummary> findAvailableProductSummaries() {
         logger.info("Buscando produtos disponíveis");
-        return productRepository.findByAvailableTrue();
+        return productRepository.findSummariesByAvailableTrue();
     }
 
     /**
@@ -103,16 +204,24 @@ public class ProductService {
      */
     public Page<Product> findAvailableProducts(Pageable pageable) {
         logger.info("Buscando produtos disponíveis com paginação: {}", pageable);
-        return productRepository.findByAvailableTrue(pageable);
+        return productRepository.findByAvailableTrue(byPriceCents(pageable));
+    }
+
+    /**
+     * Buscar produtos disponíveis por cursor (keyset)
+     */
+    public CursorPage<Product> findAvailableProducts(String cursor, String sortBy, Sort.Direction direction, int size) {
+        logger.info("Buscando produtos disponíveis por cursor: sortBy={}, direction={}, size={}", sortBy, direction, size);
+        return productRepository.findAvailableAfter(cursor, PRICE.equals(sortBy) ? PRICE_CENTS : sortBy, direction, size);
     }
 
     /**
-     * Buscar produtos por categoria
+     * Buscar resumos dos produtos disponíveis por categoria
      */
-    @Cacheable(value = "productsByCategory", key = "#category")
-    public List<Product> findByCategory(String category) {
+    @Cacheable(value = "productSummariesByCategory", key = "@cacheGenerations.productCategoryKey(#category)", sync = true)
+    public List<ProductSummary> findSummariesByCategory(String category) {
         logger.info("Buscando produtos por categoria: {}", category);
-        return productRepository.findByCategoryAndAvailableTrue(category);
+        return productRepository.findSummariesByCategoryAndAvailableTrue(category);
     }
 
     /**
@@ -120,7 +229,7 @@ public class ProductService {
      */
     public Page<Product> findByCategory(String category, Pageable pageable) {
         logger.info("Buscando produtos por categoria com paginação: {} - {}", category, pageable);
-        return productRepository.findByCategoryAndAvailableTrue(category, pageable);
+        return productRepository.findByCategoryAndAvailableTrue(category, byPriceCents(pageable));
     }
 
     /**
@@ -128,7 +237,7 @@ public class ProductService {
      */
     public List<Product> findByName(String name) {
         logger.info("Buscando produtos por nome: {}", name);
-        return productRepository.findByNameContainingIgnoreCase(name);
+        return productRepository.searchByName(name);
     }
 
     /**
@@ -136,21 +245,30 @@ public class ProductService {
      */
     public Page<Product> findByName(String name, Pageable pageable) {
         logger.info("Buscando produtos por nome com paginação: {} - {}", name, pageable);
-        return productRepository.findByNameContainingIgnoreCaseAndAvailableTrue(name, pageable);
+        return productRepository.searchAvailableByName(name, byPriceCents(pageable));
     }
 
     /**
-     * Buscar produtos por faixa de preço
+     * Buscar produtos disponíveis por faixa de preço (limites inclusivos), ordenados por preço
+     *
+     * @throws IllegalArgumentException se um limite é negativo ou o mínimo passa do máximo
      */
     public List<Product> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
         logger.info("Buscando produtos por faixa de preço: {} - {}", minPrice, maxPrice);
-        return productRepository.findByPriceBetween(minPrice, maxPrice);
+        if (minPrice.signum() < 0 || maxPrice.signum() < 0) {
+            throw new IllegalArgumentException("Faixa de preço com limite negativo");
+        }
+        if (minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("Preço mínimo maior que o máximo");
+        }
+        // Mínimo arredondado para cima e máximo para baixo: só preços dentro da faixa
+        return productRepository.findAvailableByPriceCentsRange(PriceCents.ceilingOf(minPrice), PriceCents.floorOf(maxPrice));
     }
 
     /**
      * Buscar produtos por tag
      */
-    @Cacheable(value = "productsByTag", key = "#tag")
+    @Cacheable(value = "productsByTag", key = "@cacheGenerations.productTagKey(#tag)", sync = true)
     public List<Product> findByTag(String tag) {
         logger.info("Buscando produtos por tag: {}", tag);
         return productRepository.findByTagsContaining(tag);
@@ -165,23 +283,133 @@ public class ProductService {
     }
 
     /**
-     * Atualizar estoque do produto
+     * Atualizar estoque do produto (uma única operação no MongoDB; o cache recebe o documento retornado)
      */
     @CachePut(value = "products", key = "#productId")
     public Product updateStock(String productId, Integer newStock) {
         logger.info("Atualizando estoque do produto: {} para {}", productId, newStock);
         
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Produto não encontrado: " + productId));
-        
-        product.setStock(newStock);
-        return productRepository.save(product);
+        Product saved = productRepository.setStock(productId, newStock);
+        if (saved == null) {
+            throw new IllegalArgumentException("Produto não encontrado: " + productId);
+        }
+        bumpStockGenerations(saved);
+        return saved;
+    }
+
+    /**
+     * Somar delta ao estoque de forma atômica, mantendo-o entre floor e ceiling (nulos: sem limite)
+     *
+     * @throws IllegalArgumentException se o produto não existe
+     * @throws IllegalStateException se o estoque resultante violaria um limite
+     */
+    @CachePut(value = "products", key = "#productId")
+    public Product adjustStock(String productId, int delta, Integer floor, Integer ceiling) {
+        logger.info("Ajustando estoque do produto: {} em {}", productId, delta);
+
+        Product saved = productRepository.adjustStock(productId, delta, floor, ceiling);
+        if (saved == null) {
+            Product current = productRepository.findById(productId)
+                    .orElseThrow(() -> new IllegalArgumentException("Produto não encontrado: " + productId));
+            throw new IllegalStateException("Ajuste de " + delta + " violaria o limite de estoque (atual: "
+                    + current.getStock() + ")");
+        }
+        bumpStockGenerations(saved);
+        return saved;
+    }
+
+    /**
+     * Ajustar o estoque de vários produtos
+     *
+     * Deltas repetidos do mesmo produto são somados; somas fora do intervalo de int
+     * são reportadas como erro do item. Cada ajuste é um $inc atômico com os mesmos
+     * limites, enviados com no máximo app.bulk.stock-parallelism em paralelo para
+     * não esgotar o pool do MongoDB; os que não se aplicam não impedem os demais.
+     * O cache recebe os documentos retornados
+     * em uma única escrita em lote e as gerações das tags são incrementadas uma vez.
+     */
+    public List<StockAdjustmentResult> adjustStocks(List<StockAdjustment> adjustments, Integer floor, Integer ceiling) {
+        // Soma em long: deltas de int repetidos podem estourar int
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        adjustments.forEach(adjustment -> deltas.merge(adjustment.getProductId(), (long) adjustment.getDelta(), Long::sum));
+        logger.info("Ajustando estoque de {} produtos em lote", deltas.size());
+
+        Map<String, Future<Product>> pending = new LinkedHashMap<>();
+        Map<String, Product> updated = new LinkedHashMap<>();
+        Map<String, String> errors = new HashMap<>();
+        int parallelism = Math.max(1, appProperties.getBulk().getStockParallelism());
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofVirtual().name("stock-adjust-", 0).factory())) {
+            deltas.forEach((id, delta) -> {
+                if (delta < Integer.MIN_VALUE || delta > Integer.MAX_VALUE) {
+                    errors.put(id, "Soma dos ajustes (" + delta + ") fora do intervalo permitido");
+                    return;
+                }
+                int total = delta.intValue();
+                pending.put(id, executor.submit(() -> productRepository.adjustStock(id, total, floor, ceiling)));
+            });
+            pending.forEach((id, future) -> {
+                try {
+                    Product saved = future.get();
+                    if (saved != null) {
+                        updated.put(id, saved);
+                    }
+                } catch (ExecutionException e) {
+                    errors.put(id, "Erro ao ajustar estoque: " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    errors.put(id, "Ajuste interrompido");
+                }
+            });
+        }
+
+        // Ajustes não aplicados: distinguir produto inexistente de limite violado
+        List<String> rejectedIds = deltas.keySet().stream()
+                .filter(id -> !updated.containsKey(id) && !errors.containsKey(id))
+                .toList();
+        Map<String, Product> current = new HashMap<>();
+        if (!rejectedIds.isEmpty()) {
+            productRepository.findAllById(rejectedIds).forEach(product -> current.put(product.getId(), product));
+        }
+
+        List<StockAdjustmentResult> results = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> {
+            if (updated.containsKey(id)) {
+                results.add(new StockAdjustmentResult(id, true, updated.get(id).getStock(), null));
+            } else if (errors.containsKey(id)) {
+                results.add(new StockAdjustmentResult(id, false, null, errors.get(id)));
+            } else if (current.containsKey(id)) {
+                results.add(new StockAdjustmentResult(id, false, current.get(id).getStock(),
+                        "Ajuste de " + delta + " violaria o limite de estoque"));
+            } else {
+                results.add(new StockAdjustmentResult(id, false, null, "Produto não encontrado"));
+            }
+        });
+
+        if (!updated.isEmpty()) {
+            Cache cache = cacheManager.getCache("products");
+            if (cache != null) {
+                try {
+                    cacheBatchOperations.putAll(cache, updated);
+                } catch (Exception e) {
+                    logger.warn("Erro ao gravar produtos no cache em lote: {}", e.getMessage());
+                }
+            }
+            List<String> tags = new ArrayList<>();
+            updated.values().forEach(product -> {
+                if (product.getTags() != null) {
+                    tags.addAll(product.getTags());
+                }
+            });
+            cacheGenerations.bumpProductTags(tags);
+        }
+        return results;
     }
 
     /**
      * Contar produtos por categoria
      */
-    @Cacheable(value = "productCountByCategory", key = "#category")
+    @Cacheable(value = "productCountByCategory", key = "@cacheGenerations.productCategoryKey(#category)", sync = true)
     public long countByCategory(String category) {
         logger.info("Contando produtos por categoria: {}", category);
         return productRepository.countByCategory(category);
@@ -190,19 +418,65 @@ public class ProductService {
     /**
      * Contar produtos disponíveis
      */
-    @Cacheable(value = "availableProductCount")
+    @Cacheable(value = "availableProductCount", key = "@cacheGenerations.productKey()", sync = true)
     public long countAvailableProducts() {
         logger.info("Contando produtos disponíveis");
         return productRepository.countByAvailableTrue();
     }
 
+    /**
+     * Facetas do catálogo (categorias, tags, faixas de preço e disponibilidade)
+     */
+    @Cacheable(value = "catalogFacets", key = "@cacheGenerations.productKey()", sync = true)
+    public CatalogFacets getCatalogFacets() {
+        logger.info("Calculando facetas do catálogo");
+        return productRepository.catalogFacets();
+    }
+
     /**
      * Limpar cache de produtos
      */
-    @CacheEvict(value = {"products", "availableProducts", "productsByCategory", "productsByTag", 
-                         "productCountByCategory", "availableProductCount"}, allEntries = true)
+    @CacheEvict(value = {"products", "availableProductSummaries", "productSummariesByCategory", "productsByTag", 
+                         "productCountByCategory", "availableProductCount", "catalogFacets"}, allEntries = true)
     public void clearCache() {
         logger.info("Limpando cache de produtos");
     }
+
+    /**
+     * Ordenação por preço feita sobre priceCents (numérico e indexado)
+     */
+    private static Pageable byPriceCents(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().getOrderFor(PRICE) == null) {
+            return pageable;
+        }
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .map(order -> PRICE.equals(order.getProperty()) ? order.withProperty(PRICE_CENTS) : order)
+                .toList());
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    /**
+     * Incrementar as gerações das categorias e tags do produto antes e depois da escrita
+     */
+    private void bumpGenerations(Product before, Product after) {
+        List<String> categories = new ArrayList<>();
+        List<String> tags = new ArrayList<>();
+        Stream.of(before, after).filter(Objects::nonNull).forEach(product -> {
+            categories.add(product.getCategory());
+            if (product.getTags() != null) {
+                tags.addAll(product.getTags());
+            }
+        });
+        cacheGenerations.bumpProducts(categories, tags);
+    }
+
+    /**
+     * Estoque só aparece nas listas completas por tag; resumos, contagens e facetas não mudam
+     */
+    private void bumpStockGenerations(Product product) {
+        if (product.getTags() != null) {
+            cacheGenerations.bumpProductTags(product.getTags());
+        }
+    }
 }
 
@@ -0,0 +1,77 @@
+package com.example.app.service;
+
+import com.example.app.cache.CacheGenerations;
+import com.example.app.cache.ExistenceFilters;
+import com.example.app.cache.ReactiveCacheLookup;
+import com.example.app.dto.ProductSummary;
+import com.example.app.entity.Product;
+import com.example.app.repository.ReactiveProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Leituras de produtos pelo caminho reativo (perfil reactive)
+ *
+ * Usa os mesmos caches e chaves do ProductService, de modo que os dois stacks
+ * compartilham as entradas no Redis.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveProductService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveProductService.class);
+
+    @Autowired
+    private ReactiveProductRepository productRepository;
+
+    @Autowired
+    private ReactiveCacheLookup cacheLookup;
+
+    @Autowired
+    private CacheGenerations cacheGenerations;
+
+    @Autowired
+    private ExistenceFilters existenceFilters;
+
+    /**
+     * Buscar produto por ID (com cache); vazio se não existir
+     */
+    public Mono<Product> findById(String id) {
+        // Filtro só em memória: não bloqueia o event loop
+        if (!existenceFilters.mightContainProduct(id)) {
+            return Mono.empty();
+        }
+        return cacheLookup.get("products", id, Mono.defer(() -> {
+            logger.info("Buscando produto por ID: {}", id);
+            return productRepository.findById(id);
+        }));
+    }
+
+    /**
+     * Listar resumos de todos os produtos disponíveis
+     */
+    public Mono<List<ProductSummary>> findAvailableProductSummaries() {
+        return cacheGenerations.reactiveProductKey().flatMap(key ->
+                cacheLookup.get("availableProductSummaries", key, Mono.defer(() -> {
+                    logger.info("Buscando produtos disponíveis");
+                    return productRepository.findSummariesByAvailableTrue().collectList();
+                })));
+    }
+
+    /**
+     * Buscar resumos dos produtos disponíveis por categoria
+     */
+    public Mono<List<ProductSummary>> findSummariesByCategory(String category) {
+        return cacheGenerations.reactiveProductCategoryKey(category).flatMap(key ->
+                cacheLookup.get("productSummariesByCategory", key, Mono.defer(() -> {
+                    logger.info("Buscando produtos por categoria: {}", category);
+                    return productRepository.findSummariesByCategoryAndAvailableTrue(category).collectList();
+                })));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.app.service;
+
+import com.example.app.cache.CacheGenerations;
+import com.example.app.cache.ExistenceFilters;
+import com.example.app.cache.ReactiveCacheLookup;
+import com.example.app.dto.UserSummary;
+import com.example.app.entity.User;
+import com.example.app.repository.ReactiveUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Leituras de usuários pelo caminho reativo (perfil reactive)
+ *
+ * Usa os mesmos caches e chaves do UserService.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserService.class);
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private ReactiveCacheLookup cacheLookup;
+
+    @Autowired
+    private CacheGenerations cacheGenerations;
+
+    @Autowired
+    private ExistenceFilters existenceFilters;
+
+    /**
+     * Buscar usuário por ID (com cache); vazio se não existir
+     */
+    public Mono<User> findById(String id) {
+        // Filtro só em memória: não bloqueia o event loop
+        if (!existenceFilters.mightContainUser(id)) {
+            return Mono.empty();
+        }
+        return cacheLookup.get("users", id, Mono.defer(() -> {
+            logger.info("Buscando usuário por ID: {}", id);
+            return userRepository.findById(id);
+        }));
+    }
+
+    /**
+     * Listar resumos dos usuários ativos
+     */
+    public Mono<List<UserSummary>> findActiveUserSummaries() {
+        return cacheGenerations.reactiveUserKey().flatMap(key ->
+                cacheLookup.get("activeUserSummaries", key, Mono.defer(() -> {
+                    logger.info("Buscando usuários ativos");
+                    return userRepository.findSummariesByActiveTrue().collectList();
+                })));
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.app.service;
 
+import com.example.app.cache.CacheGenerations;
+import com.example.app.cache.ExistenceFilters;
+import com.example.app.dto.UserSummary;
 import com.example.app.entity.User;
+import com.example.app.repository.CursorPage;
 import com.example.app.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,8 +12,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,7 +24,8 @@ import java.util.Optional;
 /**
  * Serviço para operações com usuários
  * 
- * Implementa cache Redis para melhorar performance
+ * Implementa cache Redis para melhorar performance. activeUserSummaries e userCount
+ * usam chaves com geração, incrementada a cada escrita de usuário.
  */
 @Service
 public class UserService {
@@ -28,6 +35,12 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CacheGenerations cacheGenerations;
+
+    @Autowired
+    private ExistenceFilters existenceFilters;
+
     /**
      * Criar novo usuário
      */
@@ -35,11 +48,34 @@ public class UserService {
     public User createUser(User user) {
         logger.info("Criando novo usuário: {}", user.getEmail());
         
+        // Escrita consulta sempre o MongoDB (não o filtro); o índice único cobre a corrida
         if (userRepository.existsByEmail(user.getEmail())) {
             throw new IllegalArgumentException("Email já está em uso: " + user.getEmail());
         }
         
-        return userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DuplicateKeyException e) {
+            throw new IllegalArgumentException("Email já está em uso: " + user.getEmail());
+        }
+        existenceFilters.addUser(saved.getId(), saved.getEmail());
+        cacheGenerations.bumpUsers();
+        return saved;
+    }
+
+    /**
+     * Verificar pelo filtro de existência se o usuário pode existir (sem consultar Redis/MongoDB)
+     */
+    public boolean mightExist(String id) {
+        return existenceFilters.mightContainUser(id);
+    }
+
+    /**
+     * Verificar pelo filtro de existência se o email pode estar em uso (sem consultar Redis/MongoDB)
+     */
+    public boolean mightExistEmail(String email) {
+        return existenceFilters.mightContainEmail(email);
     }
 
     /**
@@ -61,17 +97,21 @@ public class UserService {
     }
 
     /**
-     * Atualizar usuário
+     * Atualizar usuário (uma única operação, condicionada à versão informada)
+     *
+     * @throws IllegalArgumentException se o usuário não existe
+     * @throws org.springframework.dao.OptimisticLockingFailureException se a versão está desatualizada
      */
     @CachePut(value = "users", key = "#user.id")
     public User updateUser(User user) {
-        logger.info("Atualizando usuário: {}", user.getId());
+        logger.info("Atualizando usuário: {} (versão {})", user.getId(), user.getVersion());
         
-        if (!userRepository.existsById(user.getId())) {
+        if (userRepository.replaceVersioned(user) == null) {
             throw new IllegalArgumentException("Usuário não encontrado: " + user.getId());
         }
-        
-        return userRepository.save(user);
+        existenceFilters.addUser(user.getId(), user.getEmail());
+        cacheGenerations.bumpUsers();
+        return user;
     }
 
     /**
@@ -81,34 +121,34 @@ public class UserService {
     public void deleteUser(String id) {
         logger.info("Deletando usuário: {}", id);
         
-        if (!userRepository.existsById(id)) {
+        if (userRepository.removeById(id) == null) {
             throw new IllegalArgumentException("Usuário não encontrado: " + id);
         }
-        
-        userRepository.deleteById(id);
+        cacheGenerations.bumpUsers();
     }
 
     /**
-     * Desativar usuário (soft delete)
+     * Desativar usuário (soft delete, uma única operação no MongoDB)
      */
     @CachePut(value = "users", key = "#id")
     public User deactivateUser(String id) {
         logger.info("Desativando usuário: {}", id);
         
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado: " + id));
-        
-        user.setActive(false);
-        return userRepository.save(user);
+        User saved = userRepository.deactivate(id);
+        if (saved == null) {
+            throw new IllegalArgumentException("Usuário não encontrado: " + id);
+        }
+        cacheGenerations.bumpUsers();
+        return saved;
     }
 
     /**
-     * Listar todos os usuários ativos
+     * Listar resumos de todos os usuários ativos
      */
-    @Cacheable(value = "activeUsers")
-    public List<User> findActiveUsers() {
+    @Cacheable(value = "activeUserSummaries", key = "@cacheGenerations.userKey()", sync = true)
+    public List<UserSummary> findActiveUserSummaries() {
         logger.info("Buscando usuários ativos");
-        return userRepository.findByActiveTrue();
+        return userRepository.findSummariesByActiveTrue();
     }
 
     /**
@@ -119,12 +159,20 @@ public class UserService {
         return userRepository.findByActiveTrue(pageable);
     }
 
+    /**
+     * Buscar usuários ativos por cursor (keyset)
+     */
+    public CursorPage<User> findActiveUsers(String cursor, String sortBy, Sort.Direction direction, int size) {
+        logger.info("Buscando usuários ativos por cursor: sortBy={}, direction={}, size={}", sortBy, direction, size);
+        return userRepository.findActiveAfter(cursor, sortBy, direction, size);
+    }
+
     /**
      * Buscar usuários por nome
      */
     public List<User> findByName(String name) {
         logger.info("Buscando usuários por nome: {}", name);
-        return userRepository.findByNameContainingIgnoreCase(name);
+        return userRepository.searchByName(name);
     }
 
     /**
@@ -132,13 +180,13 @@ public class UserService {
      */
     public Page<User> findByName(String name, Pageable pageable) {
         logger.info("Buscando usuários por nome com paginação: {} - {}", name, pageable);
-        return userRepository.findByNameContainingIgnoreCaseAndActiveTrue(name, pageable);
+        return userRepository.searchActiveByName(name, pageable);
     }
 
     /**
      * Contar usuários ativos
      */
-    @Cacheable(value = "userCount")
+    @Cacheable(value = "userCount", key = "@cacheGenerations.userKey()", sync = true)
     public long countActiveUsers() {
         logger.info("Contando usuários ativos");
         return userRepository.countByActiveTrue();
@@ -148,13 +196,13 @@ public class UserService {
      * Verificar se email existe
      */
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        return existenceFilters.mightContainEmail(email) && userRepository.existsByEmail(email);
     }
 
     /**
      * Limpar cache de usuários
      */
-    @CacheEvict(value = {"users", "activeUsers", "userCount"}, allEntries = true)
+    @CacheEvict(value = {"users", "activeUserSummaries", "userCount"}, allEntries = true)
     public void clearCache() {
         logger.info("Limpando cache de usuários");
     }
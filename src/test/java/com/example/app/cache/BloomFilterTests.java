@@ -0,0 +1,55 @@
+package com.example.app.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Filtro de Bloom: sem falsos negativos e taxa de falsos positivos próxima da configurada
+ */
+class BloomFilterTests {
+
+    private static final int INSERTIONS = 20_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void addedValuesAreAlwaysReported() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        IntStream.range(0, INSERTIONS).forEach(i -> filter.add("product-" + i));
+
+        assertThat(IntStream.range(0, INSERTIONS)).allMatch(i -> filter.mightContain("product-" + i));
+    }
+
+    @Test
+    void falsePositiveRateStaysWithinBounds() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+        IntStream.range(0, INSERTIONS).forEach(i -> filter.add("product-" + i));
+
+        int probes = 100_000;
+        long falsePositives = IntStream.range(0, probes)
+                .filter(i -> filter.mightContain("missing-" + i))
+                .count();
+
+        // Margem para a variação estatística: o dobro da taxa configurada
+        assertThat((double) falsePositives / probes).isLessThan(FALSE_POSITIVE_RATE * 2);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+
+        assertThat(filter.mightContain("product-1")).isFalse();
+        assertThat(filter.mightContain("")).isFalse();
+    }
+
+    @Test
+    void sizingFollowsExpectedInsertionsAndRate() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FALSE_POSITIVE_RATE);
+
+        // m = -n ln p / (ln 2)^2 ≈ 9,59 bits por elemento e k = m/n ln 2 ≈ 7 para p = 1%
+        assertThat(filter.bitSize()).isBetween((long) (INSERTIONS * 9.5), (long) (INSERTIONS * 9.7));
+        assertThat(filter.hashCount()).isEqualTo(7);
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.app.cache;
+
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Eventos do change stream: escritas já refletidas no cache são ignoradas e as
+ * demais atualizam a entrada e incrementam as gerações de antes e de depois
+ */
+class ChangeStreamCacheSyncTests {
+
+    private final Cache products = mock(Cache.class);
+    private final Cache users = mock(Cache.class);
+    private final CacheGenerations cacheGenerations = mock(CacheGenerations.class);
+    private final ExistenceFilters existenceFilters = mock(ExistenceFilters.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ChangeStreamCacheSync sync = new ChangeStreamCacheSync();
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache("products")).thenReturn(products);
+        when(cacheManager.getCache("users")).thenReturn(users);
+
+        ReflectionTestUtils.setField(sync, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(sync, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(sync, "cacheGenerations", cacheGenerations);
+        ReflectionTestUtils.setField(sync, "existenceFilters", existenceFilters);
+        ReflectionTestUtils.setField(sync, "meterRegistry", meterRegistry);
+    }
+
+    @Test
+    void productAlreadyCachedAsWrittenIsSkipped() {
+        Product product = product("moveis", "sala");
+        cache(products, product);
+
+        apply(event("products", OperationType.UPDATE, document(product), null));
+
+        verify(products, never()).put(any(), any());
+        verifyNoInteractions(cacheGenerations, existenceFilters);
+        assertThat(events("products", "skipped")).isEqualTo(1);
+    }
+
+    @Test
+    void productUpdateRefreshesTheEntryAndBumpsBeforeAndAfter() {
+        cache(products, product("moveis", "sala"));
+        Product after = product("escritorio", "home");
+
+        apply(event("products", OperationType.UPDATE, document(after), null));
+
+        verify(products).put(eq("p1"), argThat(value -> "escritorio".equals(((Product) value).getCategory())));
+        verify(cacheGenerations).bumpProducts(List.of("moveis", "escritorio"), List.of("sala", "home"));
+        assertThat(events("products", "applied")).isEqualTo(1);
+    }
+
+    @Test
+    void uncachedInsertOnlyFeedsTheFilterAndBumps() {
+        apply(event("products", OperationType.INSERT, document(product("moveis", "sala")), null));
+
+        verify(existenceFilters).addProduct("p1");
+        verify(products, never()).put(any(), any());
+        verify(cacheGenerations).bumpProducts(List.of("moveis"), List.of("sala"));
+    }
+
+    @Test
+    void deleteEvictsAndBumpsThePreImage() {
+        apply(event("products", OperationType.DELETE, null, document(product("moveis", "sala"))));
+
+        verify(products).evict("p1");
+        verify(cacheGenerations).bumpProducts(List.of("moveis"), List.of("sala"));
+    }
+
+    @Test
+    void userAlreadyCachedAsWrittenIsSkipped() {
+        User user = user("ana@example.com");
+        cache(users, user);
+
+        apply(event("users", OperationType.REPLACE, document(user), null));
+
+        verify(users, never()).evict(anyString());
+        verify(cacheGenerations, never()).bumpUsers();
+        assertThat(events("users", "skipped")).isEqualTo(1);
+    }
+
+    @Test
+    void userEmailChangeEvictsBothEmailKeysAndBumps() {
+        cache(users, user("ana@example.com"));
+
+        apply(event("users", OperationType.UPDATE, document(user("ana.silva@example.com")), null));
+
+        verify(users).evict("email:ana@example.com");
+        verify(users).evict("email:ana.silva@example.com");
+        verify(users).put(eq("u1"), any(User.class));
+        verify(cacheGenerations).bumpUsers();
+    }
+
+    private void apply(ChangeStreamDocument<Document> event) {
+        ReflectionTestUtils.invokeMethod(sync, "apply", event);
+    }
+
+    private double events(String collection, String result) {
+        return meterRegistry.find("cache.change.events").tag("collection", collection).tag("result", result)
+                .counter().count();
+    }
+
+    private static void cache(Cache cache, Object value) {
+        String id = value instanceof Product product ? product.getId() : ((User) value).getId();
+        when(cache.get(id)).thenReturn(new SimpleValueWrapper(value));
+    }
+
+    private Document document(Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return document;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamDocument<Document> event(String collection, OperationType operation,
+                                                        Document after, Document before) {
+        ChangeStreamDocument<Document> event = mock(ChangeStreamDocument.class);
+        String id = "products".equals(collection) ? "p1" : "u1";
+        when(event.getNamespace()).thenReturn(new MongoNamespace("app", collection));
+        when(event.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonString(id)));
+        when(event.getOperationType()).thenReturn(operation);
+        when(event.getFullDocument()).thenReturn(after);
+        when(event.getFullDocumentBeforeChange()).thenReturn(before);
+        return event;
+    }
+
+    private static Product product(String category, String tag) {
+        Product product = new Product("Mesa", null, new BigDecimal("350.00"), category);
+        product.setId("p1");
+        product.setTags(List.of(tag));
+        product.setVersion(1L);
+        return product;
+    }
+
+    private static User user(String email) {
+        User user = new User("Ana", email);
+        user.setId("u1");
+        return user;
+    }
+}
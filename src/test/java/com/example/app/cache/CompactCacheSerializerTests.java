@@ -0,0 +1,137 @@
+package com.example.app.cache;
+
+import com.example.app.dto.ProductSummary;
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Codec binário do cache: formato atual (schema 2), entradas schema 1 e JSON legado
+ */
+class CompactCacheSerializerTests {
+
+    private final RedisSerializer<Object> legacy = legacySerializer();
+    private final CompactCacheSerializer serializer =
+            new CompactCacheSerializer(legacy, CompactCacheSerializer.Format.BINARY, true);
+
+    @Test
+    void productRoundTripKeepsAllFields() {
+        Product product = product(7L);
+
+        byte[] bytes = serializer.serialize(product);
+        assertThat(bytes[0]).isEqualTo(CompactCacheSerializer.MAGIC);
+
+        Product read = (Product) serializer.deserialize(bytes);
+        assertThat(read).usingRecursiveComparison().isEqualTo(product);
+        assertThat(read.getVersion()).isEqualTo(7L);
+    }
+
+    @Test
+    void userRoundTripKeepsVersion() {
+        User user = new User("Ana", "ana@example.com", "+55 11 90000-0000", "Bio");
+        user.setId("u1");
+        user.setVersion(3L);
+
+        User read = (User) serializer.deserialize(serializer.serialize(user));
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(user);
+    }
+
+    @Test
+    void listsAndScalarsRoundTrip() {
+        List<Object> values = Arrays.asList(
+                new ProductSummary("p1", "Mesa", new BigDecimal("10.50"), "moveis", true),
+                42L, 7, "texto", true, null);
+
+        Object read = serializer.deserialize(serializer.serialize(values));
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(values);
+    }
+
+    @Test
+    void readsSchemaOneEntriesWithoutVersion() {
+        // Schema 1 é o schema 2 sem a versão no fim (um booleano "ausente" quando a versão é nula)
+        Product product = product(null);
+        byte[] current = serializer.serialize(product);
+        byte[] schemaOne = Arrays.copyOf(current, current.length - 1);
+        schemaOne[2] = 1;
+
+        Product read = (Product) serializer.deserialize(schemaOne);
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(product);
+        assertThat(read.getVersion()).isNull();
+    }
+
+    @Test
+    void readsLegacyJsonEntries() {
+        Product product = product(2L);
+        byte[] json = legacy.serialize(product);
+
+        Product read = (Product) serializer.deserialize(json);
+
+        assertThat(read.getId()).isEqualTo(product.getId());
+        assertThat(read.getName()).isEqualTo(product.getName());
+        assertThat(read.getPrice()).isEqualByComparingTo(product.getPrice());
+        assertThat(read.getTags()).isEqualTo(product.getTags());
+        assertThat(read.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void legacyJsonIsIgnoredWhenLegacyReadsAreDisabled() {
+        CompactCacheSerializer binaryOnly =
+                new CompactCacheSerializer(legacy, CompactCacheSerializer.Format.BINARY, false);
+
+        assertThat(binaryOnly.deserialize(legacy.serialize(product(1L)))).isNull();
+    }
+
+    @Test
+    void otherTypesAreEmbeddedAsJson() {
+        Map<String, Object> value = new HashMap<>(Map.of("categoria", "moveis", "total", 3));
+
+        byte[] bytes = serializer.serialize(value);
+        assertThat(bytes[0]).isEqualTo(CompactCacheSerializer.MAGIC);
+
+        assertThat(serializer.deserialize(bytes)).isEqualTo(value);
+    }
+
+    private static Product product(Long version) {
+        Product product = new Product("Cadeira Ergonômica", "Descrição", new BigDecimal("199.90"), "moveis");
+        product.setId("p1");
+        product.setTags(List.of("escritorio", "conforto"));
+        product.setStock(12);
+        product.setCreatedDate(ZonedDateTime.of(2024, 5, 1, 10, 0, 0, 123_000_000, ZoneOffset.UTC));
+        product.setLastModifiedDate(ZonedDateTime.of(2024, 5, 2, 11, 30, 0, 0, ZoneOffset.UTC));
+        product.setCreatedBy("system");
+        product.setLastModifiedBy("admin");
+        product.setVersion(version);
+        return product;
+    }
+
+    /**
+     * Mesmo serializer JSON configurado em RedisConfig
+     */
+    private static RedisSerializer<Object> legacySerializer() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        objectMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL);
+        objectMapper.registerModule(new JavaTimeModule());
+        return new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.app.cache;
+
+import com.example.app.config.AppConfig.AppProperties;
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Filtros de existência: ausência respondida em memória e adições recentes trazidas do Redis
+ */
+class ExistenceFiltersTests {
+
+    private MongoTemplate mongoTemplate;
+    private StringRedisTemplate redisTemplate;
+    private ZSetOperations<String, String> zSetOperations;
+    private ExistenceFilters filters;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+
+        Product product = new Product();
+        product.setId("p1");
+        User user = new User("Ana", "Ana@Example.com");
+        user.setId("u1");
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenAnswer(invocation -> Stream.of(product));
+        when(mongoTemplate.stream(any(Query.class), eq(User.class))).thenAnswer(invocation -> Stream.of(user));
+
+        filters = new ExistenceFilters(mongoTemplate, redisTemplate, new AppProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void everythingMightExistBeforeTheFirstBuild() {
+        assertThat(filters.mightContainProduct("qualquer")).isTrue();
+        assertThat(filters.mightContainEmail("qualquer@example.com")).isTrue();
+    }
+
+    @Test
+    void missesAreAnsweredWithoutRedis() {
+        filters.rebuild();
+        clearInvocations(redisTemplate, zSetOperations);
+
+        assertThat(filters.mightContainProduct("p1")).isTrue();
+        assertThat(filters.mightContainProduct("p2")).isFalse();
+        assertThat(filters.mightContainUser("u2")).isFalse();
+        assertThat(filters.mightContainEmail("ANA@example.com")).isTrue();
+        assertThat(filters.mightContainEmail("bia@example.com")).isFalse();
+
+        verifyNoInteractions(redisTemplate, zSetOperations);
+    }
+
+    @Test
+    void syncPullsRecentAdditionsIntoLocalFilters() {
+        filters.rebuild();
+        when(zSetOperations.rangeByScore(eq("existence:recent:productId"), anyDouble(), anyDouble()))
+                .thenReturn(Set.of("p2"));
+        when(zSetOperations.rangeByScore(eq("existence:recent:userId"), anyDouble(), anyDouble()))
+                .thenReturn(Set.of());
+
+        filters.syncRecent();
+
+        assertThat(filters.mightContainProduct("p2")).isTrue();
+        assertThat(filters.mightContainUser("u2")).isFalse();
+    }
+
+    @Test
+    void syncOnlyReadsAdditionsSinceThePreviousPull() {
+        long start = System.currentTimeMillis();
+
+        filters.syncRecent();
+        filters.syncRecent();
+
+        ArgumentCaptor<Double> since = ArgumentCaptor.forClass(Double.class);
+        verify(zSetOperations, times(2))
+                .rangeByScore(eq("existence:recent:productId"), since.capture(), eq(Double.POSITIVE_INFINITY));
+        assertThat(since.getAllValues().get(0)).isLessThan(0);
+        assertThat(since.getAllValues().get(1)).isGreaterThan(start - 10_000.0);
+    }
+
+    @Test
+    void redisFailuresDuringSyncKeepTheLocalFilters() {
+        filters.rebuild();
+        when(zSetOperations.rangeByScore(anyString(), anyDouble(), anyDouble()))
+                .thenThrow(new IllegalStateException("Redis indisponível"));
+
+        filters.syncRecent();
+
+        assertThat(filters.mightContainProduct("p1")).isTrue();
+        assertThat(filters.mightContainProduct("p2")).isFalse();
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.app.cache;
+
+import com.example.app.config.AppConfig.AppProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Single-flight do cache em dois níveis: carga única local e coordenação entre instâncias pelo lease
+ *
+ * Refresh-ahead: recarga em segundo plano das entradas próximas da expiração
+ */
+class TwoLevelCacheTests {
+
+    private static final String LEASE_KEY = "lock:products::p1";
+    private static final int WAITERS = 4;
+
+    private final Cache redisCache = mock(Cache.class);
+    private final RedisLease lease = mock(RedisLease.class);
+    private final CacheInvalidationPublisher publisher = mock(CacheInvalidationPublisher.class);
+    private final AppProperties.Cache.SingleFlight singleFlight = new AppProperties.Cache.SingleFlight();
+    private final ExecutorService callers = Executors.newFixedThreadPool(WAITERS + 1);
+
+    @BeforeEach
+    void setUp() {
+        singleFlight.setWaitTimeout(200);
+        singleFlight.setPollInterval(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        when(lease.tryAcquire(LEASE_KEY, Duration.ofMillis(singleFlight.getLeaseTimeout()))).thenReturn("token");
+        TwoLevelCache cache = cache(Duration.ofMinutes(10), Duration.ZERO);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            finish.await();
+            return "valor";
+        };
+
+        List<Future<String>> results = callConcurrently(cache, loader, loading);
+        awaitSharedLoads(cache);
+        finish.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("valor");
+        }
+        assertThat(loads).hasValue(1);
+        verify(redisCache).put("p1", "valor");
+        verify(lease).release(LEASE_KEY, "token");
+    }
+
+    @Test
+    void leaseLoserReadsTheValueLoadedByTheHolder() {
+        when(lease.tryAcquire(anyString(), any())).thenReturn(null);
+        when(lease.isHeld(LEASE_KEY)).thenReturn(true, false);
+        when(redisCache.get("p1")).thenReturn(null, new SimpleValueWrapper("remoto"));
+        TwoLevelCache cache = cache(Duration.ofMinutes(10), Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("p1", () -> "local" + loads.incrementAndGet())).isEqualTo("remoto");
+
+        assertThat(loads).hasValue(0);
+        verify(redisCache, never()).put(any(), any());
+        verify(lease, never()).release(anyString(), anyString());
+        // O valor lido fica no L1
+        assertThat(cache.get("p1").get()).isEqualTo("remoto");
+    }
+
+    @Test
+    void waitTimeoutFallsBackToALocalLoad() {
+        when(lease.tryAcquire(anyString(), any())).thenReturn(null);
+        when(lease.isHeld(LEASE_KEY)).thenReturn(true);
+        TwoLevelCache cache = cache(Duration.ofMinutes(10), Duration.ZERO);
+
+        long start = System.currentTimeMillis();
+        assertThat(cache.get("p1", () -> "local")).isEqualTo("local");
+
+        assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(singleFlight.getWaitTimeout());
+        verify(redisCache).put("p1", "local");
+        verify(lease, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void loaderFailureReachesEveryWaiterAndReleasesTheLease() throws Exception {
+        when(lease.tryAcquire(anyString(), any())).thenReturn("token");
+        TwoLevelCache cache = cache(Duration.ofMinutes(10), Duration.ZERO);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            loading.countDown();
+            finish.await();
+            throw new IllegalStateException("MongoDB indisponível");
+        };
+
+        List<Future<String>> results = callConcurrently(cache, loader, loading);
+        awaitSharedLoads(cache);
+        finish.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOf(Cache.ValueRetrievalException.class)
+                    .rootCause()
+                    .hasMessage("MongoDB indisponível");
+        }
+        verify(lease).release(LEASE_KEY, "token");
+        verify(redisCache, never()).put(any(), any());
+        // A falha não fica registrada: a próxima chamada carrega de novo
+        assertThat(cache.get("p1", () -> "valor")).isEqualTo("valor");
+    }
+
+    @Test
+    void withoutRedisTheLoadContinuesWithLocalSingleFlight() {
+        when(lease.tryAcquire(anyString(), any())).thenThrow(new IllegalStateException("Redis indisponível"));
+        TwoLevelCache cache = cache(Duration.ofMinutes(10), Duration.ZERO);
+
+        assertThat(cache.get("p1", () -> "valor")).isEqualTo("valor");
+
+        verify(lease, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void entryInsideTheRefreshWindowIsReloadedInTheBackground() {
+        when(lease.tryAcquire(anyString(), any())).thenReturn("token");
+        // Janela de refresh-ahead maior que o TTL: toda entrada gravada já está na janela
+        TwoLevelCache cache = cache(Duration.ofSeconds(10), Duration.ofSeconds(30));
+        cache.put("p1", "antigo");
+
+        assertThat(cache.get("p1", () -> "novo")).isEqualTo("antigo");
+
+        verify(redisCache).put("p1", "novo");
+        verify(lease).release(LEASE_KEY, "token");
+        assertThat(cache.get("p1").get()).isEqualTo("novo");
+        assertThat(cache.getStats().refreshes()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshIsSkippedWhenAnotherInstanceHoldsTheLease() {
+        when(lease.tryAcquire(anyString(), any())).thenReturn(null);
+        TwoLevelCache cache = cache(Duration.ofSeconds(10), Duration.ofSeconds(30));
+        cache.put("p1", "antigo");
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("p1", () -> "novo" + loads.incrementAndGet())).isEqualTo("antigo");
+
+        assertThat(loads).hasValue(0);
+        assertThat(cache.getStats().refreshes()).isZero();
+    }
+
+    @Test
+    void entryOutsideTheRefreshWindowIsNotReloaded() {
+        TwoLevelCache cache = cache(Duration.ofMinutes(10), Duration.ofSeconds(30));
+        cache.put("p1", "atual");
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("p1", () -> "novo" + loads.incrementAndGet())).isEqualTo("atual");
+
+        assertThat(loads).hasValue(0);
+        verify(lease, never()).tryAcquire(anyString(), any());
+    }
+
+    /**
+     * Dispara o detentor da carga e, depois que o carregador começou, os demais chamadores
+     */
+    private List<Future<String>> callConcurrently(TwoLevelCache cache, Callable<String> loader,
+                                                  CountDownLatch loading) throws InterruptedException {
+        List<Future<String>> results = new ArrayList<>();
+        results.add(callers.submit(() -> cache.get("p1", loader)));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < WAITERS; i++) {
+            results.add(callers.submit(() -> cache.get("p1", loader)));
+        }
+        return results;
+    }
+
+    private static void awaitSharedLoads(TwoLevelCache cache) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.getStats().sharedLoads() < WAITERS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(cache.getStats().sharedLoads()).isEqualTo(WAITERS);
+    }
+
+    private TwoLevelCache cache(Duration ttl, Duration refreshAhead) {
+        // Executor síncrono: o refresh-ahead termina antes de get retornar
+        return new TwoLevelCache("products", redisCache, Caffeine.newBuilder().recordStats().build(), publisher,
+                mock(StringRedisTemplate.class), Runnable::run, ttl, refreshAhead, lease, singleFlight,
+                new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.app.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Conversão de preço para centavos: arredondamento, limites de consulta e estouro
+ */
+class PriceCentsTests {
+
+    @Test
+    void roundsHalfToEvenLikeMongoRound() {
+        assertThat(PriceCents.of(new BigDecimal("19.99"))).isEqualTo(1999L);
+        assertThat(PriceCents.of(new BigDecimal("10"))).isEqualTo(1000L);
+        assertThat(PriceCents.of(new BigDecimal("0.125"))).isEqualTo(12L);
+        assertThat(PriceCents.of(new BigDecimal("0.135"))).isEqualTo(14L);
+        assertThat(PriceCents.of(new BigDecimal("0.1251"))).isEqualTo(13L);
+        assertThat(PriceCents.of(null)).isNull();
+    }
+
+    @Test
+    void productKeepsPriceCentsInSync() {
+        Product product = new Product("Mesa", null, new BigDecimal("350.505"), "moveis");
+
+        assertThat(product.getPriceCents()).isEqualTo(35050L);
+        assertThat(PriceCents.toPrice(product.getPriceCents())).isEqualByComparingTo("350.50");
+    }
+
+    @Test
+    void outOfRangePriceIsAnInvalidArgument() {
+        BigDecimal tooLarge = BigDecimal.valueOf(Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> PriceCents.of(tooLarge)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PriceCents.of(tooLarge.negate())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PriceCents.of(new BigDecimal("1E+1000"))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(PriceCents.of(BigDecimal.valueOf(Long.MAX_VALUE, 2))).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void queryBoundsRoundInward() {
+        // Mínimo para cima e máximo para baixo: 10.001 a 10.009 não inclui 10.00 nem 10.01
+        assertThat(PriceCents.ceilingOf(new BigDecimal("10.001"))).isEqualTo(1001L);
+        assertThat(PriceCents.floorOf(new BigDecimal("10.009"))).isEqualTo(1000L);
+        assertThat(PriceCents.ceilingOf(new BigDecimal("10.00"))).isEqualTo(1000L);
+        assertThat(PriceCents.floorOf(new BigDecimal("10.00"))).isEqualTo(1000L);
+    }
+
+    @Test
+    void queryBoundsClampToLongRange() {
+        assertThat(PriceCents.floorOf(new BigDecimal("1E+1000"))).isEqualTo(Long.MAX_VALUE);
+        assertThat(PriceCents.ceilingOf(new BigDecimal("-1E+1000"))).isEqualTo(Long.MIN_VALUE);
+        assertThat(PriceCents.floorOf(BigDecimal.valueOf(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+        assertThat(PriceCents.ceilingOf(new BigDecimal("1E-1000"))).isEqualTo(1L);
+        assertThat(PriceCents.floorOf(new BigDecimal("1E-1000"))).isZero();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.app.repository;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Paginação por cursor: codificação do cursor, validação da ordenação e continuação após nulos
+ */
+class KeysetTests {
+
+    private static final Set<String> SORT_FIELDS = Set.of("name", "createdDate");
+    private static final Criteria FILTER = Criteria.where("active").is(true);
+
+    @Test
+    void cursorRoundTripKeepsBsonTypes() {
+        ObjectId id = new ObjectId();
+        Date created = new Date(1_700_000_000_000L);
+        Document position = new Document("s", "createdDate").append("d", "ASC").append("v", created).append("id", id);
+
+        String cursor = Keyset.encode(position);
+
+        assertThat(cursor).doesNotContain("=", "+", "/");
+        Document decoded = Keyset.decode(cursor);
+        assertThat(decoded.get("v")).isEqualTo(created);
+        assertThat(decoded.get("id")).isEqualTo(id);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> Keyset.decode("não é base64"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Keyset.decode(Keyset.encode(new Document("s", "name"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cursorFromAnotherSortIsRejected() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        String byName = Keyset.encode(new Document("s", "name").append("d", "ASC").append("v", "Ana").append("id", "u1"));
+
+        assertThatThrownBy(() -> Keyset.page(mongoTemplate, Object.class, FILTER, SORT_FIELDS,
+                "createdDate", Sort.Direction.ASC, byName, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Keyset.page(mongoTemplate, Object.class, FILTER, SORT_FIELDS,
+                "name", Sort.Direction.DESC, byName, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void unsupportedSortFieldIsRejected() {
+        assertThatThrownBy(() -> Keyset.page(mock(MongoTemplate.class), Object.class, FILTER, SORT_FIELDS,
+                "email", Sort.Direction.ASC, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void nextCursorPointsAtLastDocumentOfThePage() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getCollectionName(Document.class)).thenReturn("users");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("users"))).thenReturn(List.of(
+                new Document("_id", "u1").append("name", "Ana"),
+                new Document("_id", "u2"),
+                new Document("_id", "u3").append("name", "Bia")));
+        when(mongoTemplate.getConverter()).thenReturn(
+                new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext()));
+
+        CursorPage<Document> page = Keyset.page(mongoTemplate, Document.class, FILTER, SORT_FIELDS,
+                "name", Sort.Direction.ASC, null, 2);
+
+        assertThat(page.content()).hasSize(2);
+        Document next = Keyset.decode(page.nextCursor());
+        assertThat(next.getString("s")).isEqualTo("name");
+        assertThat(next.containsKey("v")).isTrue();
+        assertThat(next.get("v")).isNull();
+        assertThat(next.get("id")).isEqualTo("u2");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Document.class), eq("users"));
+        assertThat(query.getValue().getLimit()).isEqualTo(3);
+        assertThat(query.getValue().getSortObject()).isEqualTo(new Document("name", 1).append("_id", 1));
+    }
+
+    @Test
+    void ascendingAfterValueSkipsNulls() {
+        Document after = Keyset.after("name", Sort.Direction.ASC, "Ana", "u1").getCriteriaObject();
+
+        assertThat(after).isEqualTo(Document.parse("""
+                {$or: [{name: {$gt: "Ana"}}, {$and: [{name: "Ana"}, {_id: {$gt: "u1"}}]}]}"""));
+    }
+
+    @Test
+    void ascendingAfterNullContinuesNullsThenValues() {
+        Document after = Keyset.after("name", Sort.Direction.ASC, null, "u1").getCriteriaObject();
+
+        assertThat(after).isEqualTo(Document.parse("""
+                {$or: [{$and: [{name: null}, {_id: {$gt: "u1"}}]}, {name: {$ne: null}}]}"""));
+    }
+
+    @Test
+    void descendingAfterValueIncludesTrailingNulls() {
+        Document after = Keyset.after("name", Sort.Direction.DESC, "Bia", "u3").getCriteriaObject();
+
+        assertThat(after).isEqualTo(Document.parse("""
+                {$or: [{name: {$lt: "Bia"}}, {$and: [{name: "Bia"}, {_id: {$lt: "u3"}}]}, {name: null}]}"""));
+    }
+
+    @Test
+    void descendingAfterNullStaysWithinNulls() {
+        Document after = Keyset.after("name", Sort.Direction.DESC, null, "u2").getCriteriaObject();
+
+        assertThat(after).isEqualTo(Document.parse("""
+                {$and: [{name: null}, {_id: {$lt: "u2"}}]}"""));
+    }
+}
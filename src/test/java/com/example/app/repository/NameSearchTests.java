@@ -0,0 +1,78 @@
+package com.example.app.repository;
+
+import com.example.app.entity.NameGrams;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Gramas de nomes e critério de busca "contém": termos curtos, acentos e escape do regex
+ */
+class NameSearchTests {
+
+    @Test
+    void nameGramsStartAtEveryPosition() {
+        assertThat(NameGrams.of("Mesa")).containsExactly("mes", "esa", "sa", "a");
+        assertThat(NameGrams.of("aaaa")).containsExactly("aaa", "aa", "a");
+        assertThat(NameGrams.of("")).isEmpty();
+        assertThat(NameGrams.of(null)).isEmpty();
+    }
+
+    @Test
+    void accentsArePreservedAndCaseIsFolded() {
+        assertThat(NameGrams.of("ÉCLAIR")).startsWith("écl", "cla");
+        assertThat(NameGrams.ofTerm("Café")).containsExactly("caf", "afé");
+        assertThat(NameGrams.ofTerm("cafe")).doesNotContain("afé");
+    }
+
+    @Test
+    void termGramsAreOnlyFullSize() {
+        assertThat(NameGrams.ofTerm("cadeira")).containsExactly("cad", "ade", "dei", "eir", "ira");
+        assertThat(NameGrams.ofTerm("ca")).isEmpty();
+    }
+
+    @Test
+    void shortTermsUseAnchoredRegexOnGrams() {
+        Document query = NameSearch.criteria("Ca").getCriteriaObject();
+
+        Pattern pattern = (Pattern) query.get("nameGrams");
+        assertThat(pattern.pattern()).isEqualTo("^ca");
+    }
+
+    @Test
+    void longTermsRequireAllGramsAndConfirmWithRegex() {
+        Document query = NameSearch.criteria("Cadeira").getCriteriaObject();
+
+        List<?> and = query.getList("$and", Object.class);
+        Document grams = (Document) ((Document) and.get(0)).get("nameGrams");
+        assertThat(grams.getList("$all", String.class)).containsExactly("cad", "ade", "dei", "eir", "ira");
+        Pattern name = (Pattern) ((Document) and.get(1)).get("name");
+        assertThat(name.pattern()).isEqualTo("Cadeira");
+        assertThat(name.flags() & Pattern.CASE_INSENSITIVE).isNotZero();
+    }
+
+    @Test
+    void regexMetacharactersAreEscaped() {
+        assertThat(NameSearch.escape("a.b*c+(d)[e]{f}|g?h^i$j\\k"))
+                .isEqualTo("a\\.b\\*c\\+\\(d\\)\\[e\\]\\{f\\}\\|g\\?h\\^i\\$j\\\\k");
+
+        Pattern shortTerm = (Pattern) NameSearch.criteria(".*").getCriteriaObject().get("nameGrams");
+        assertThat(shortTerm.matcher(".*x").find()).isTrue();
+        assertThat(shortTerm.matcher("abc").find()).isFalse();
+
+        Document query = NameSearch.criteria("c++ (v2)").getCriteriaObject();
+        Pattern name = (Pattern) ((Document) query.getList("$and", Object.class).get(1)).get("name");
+        assertThat(name.matcher("Livro C++ (V2) avançado").find()).isTrue();
+        assertThat(name.matcher("cc v2").find()).isFalse();
+    }
+
+    @Test
+    void emptyTermMatchesEverything() {
+        assertThat(NameSearch.criteria("").getCriteriaObject()).isEmpty();
+        assertThat(NameSearch.criteria(null).getCriteriaObject()).isEmpty();
+    }
+}
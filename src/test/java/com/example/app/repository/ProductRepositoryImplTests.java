@@ -0,0 +1,108 @@
+package com.example.app.repository;
+
+import com.example.app.entity.Product;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ajuste atômico de estoque: limites traduzidos em critérios sobre o estoque atual
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductRepositoryImplTests {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private AuditorAware<String> auditorAware;
+
+    @InjectMocks
+    private ProductRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("tester"));
+    }
+
+    @Test
+    void floorAndCeilingBoundTheCurrentStock() {
+        repository.adjustStock("p1", -3, 0, 100);
+
+        // stock - 3 >= 0 e stock - 3 <= 100
+        assertThat(query().getQueryObject()).isEqualTo(Document.parse("""
+                {_id: "p1", stock: {$gte: NumberLong(3), $lte: NumberLong(103)}}"""));
+    }
+
+    @Test
+    void floorOnly() {
+        repository.adjustStock("p1", -5, 0, null);
+
+        assertThat(query().getQueryObject()).isEqualTo(Document.parse("""
+                {_id: "p1", stock: {$gte: NumberLong(5)}}"""));
+    }
+
+    @Test
+    void ceilingOnly() {
+        repository.adjustStock("p1", 10, null, 50);
+
+        assertThat(query().getQueryObject()).isEqualTo(Document.parse("""
+                {_id: "p1", stock: {$lte: NumberLong(40)}}"""));
+    }
+
+    @Test
+    void withoutLimitsOnlyTheIdIsMatched() {
+        repository.adjustStock("p1", 1, null, null);
+
+        assertThat(query().getQueryObject()).isEqualTo(new Document("_id", "p1"));
+    }
+
+    @Test
+    void limitsDoNotOverflowInt() {
+        repository.adjustStock("p1", Integer.MIN_VALUE, Integer.MAX_VALUE, null);
+
+        Document stock = query().getQueryObject().get("stock", Document.class);
+        assertThat(stock.get("$gte")).isEqualTo((long) Integer.MAX_VALUE - Integer.MIN_VALUE);
+    }
+
+    @Test
+    void incrementsStockAndVersionAndReturnsNewDocument() {
+        repository.adjustStock("p1", 4, null, null);
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(),
+                options.capture(), eq(Product.class));
+        Document inc = update.getValue().getUpdateObject().get("$inc", Document.class);
+        assertThat(inc).isEqualTo(new Document("stock", 4).append("version", 1));
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("lastModifiedBy", "tester")
+                .containsKey("lastModifiedDate");
+        assertThat(options.getValue().isReturnNew()).isTrue();
+    }
+
+    private Query query() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Product.class));
+        return query.getValue();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.app.repository;
+
+import com.example.app.entity.Product;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Substituição condicional pela versão: não encontrado, conflito e aplicado
+ */
+class VersionedReplaceTests {
+
+    private static final ZonedDateTime CREATED = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final AuditorAware<String> auditorAware = () -> Optional.of("tester");
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getConverter()).thenReturn(mock(MongoConverter.class));
+    }
+
+    @Test
+    void missingDocumentReturnsNull() {
+        stored(null);
+        Product product = product(3L);
+
+        assertThat(VersionedReplace.replace(mongoTemplate, auditorAware, "p1", product, Product.class)).isNull();
+        assertThat(product.getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    void staleVersionIsAConflict() {
+        stored(storedProduct(4L));
+
+        assertThatThrownBy(() -> VersionedReplace.replace(mongoTemplate, auditorAware, "p1", product(3L), Product.class))
+                .isInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining("atual: 4");
+    }
+
+    @Test
+    void matchingVersionIsAppliedLikeSave() {
+        Product previous = storedProduct(3L);
+        stored(previous);
+        Product product = product(3L);
+
+        assertThat(VersionedReplace.replace(mongoTemplate, auditorAware, "p1", product, Product.class)).isSameAs(previous);
+
+        assertThat(product.getVersion()).isEqualTo(4L);
+        assertThat(product.getCreatedDate()).isEqualTo(CREATED);
+        assertThat(product.getCreatedBy()).isEqualTo("creator");
+        assertThat(product.getLastModifiedBy()).isEqualTo("tester");
+        assertThat(product.getLastModifiedDate()).isNotNull();
+    }
+
+    @Test
+    void conditionComparesStoredVersionAndReturnsPreviousDocument() {
+        stored(storedProduct(3L));
+
+        VersionedReplace.replace(mongoTemplate, auditorAware, "p1", product(3L), Product.class);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(Product.class));
+        assertThat(query.getValue().getQueryObject()).isEqualTo(new Document("_id", "p1"));
+        assertThat(options.getValue().isReturnNew()).isFalse();
+        Document replaceWith = replaceWith(update.getValue());
+        assertThat(replaceWith.get("$replaceWith", Document.class)).containsKey("$cond");
+    }
+
+    @Test
+    void withoutVersionTheReplacementIsUnconditional() {
+        stored(storedProduct(7L));
+        Product product = product(null);
+
+        VersionedReplace.replace(mongoTemplate, auditorAware, "p1", product, Product.class);
+
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+                eq(Product.class));
+        assertThat(replaceWith(update.getValue()).get("$replaceWith", Document.class)).containsKey("$mergeObjects");
+        assertThat(product.getVersion()).isEqualTo(8L);
+    }
+
+    private void stored(Product previous) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Product.class))).thenReturn(previous);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Document replaceWith(UpdateDefinition update) {
+        List<Document> pipeline = (List<Document>) update.getUpdateObject().get("");
+        return pipeline.get(0);
+    }
+
+    private static Product product(Long version) {
+        Product product = new Product("Mesa", "Mesa de jantar", new BigDecimal("350.00"), "moveis");
+        product.setId("p1");
+        product.setVersion(version);
+        return product;
+    }
+
+    private static Product storedProduct(Long version) {
+        Product product = product(version);
+        product.setCreatedDate(CREATED);
+        product.setCreatedBy("creator");
+        return product;
+    }
+}
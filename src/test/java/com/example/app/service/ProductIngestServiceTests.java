@@ -0,0 +1,140 @@
+package com.example.app.service;
+
+import com.example.app.cache.CacheBatchOperations;
+import com.example.app.cache.CacheGenerations;
+import com.example.app.cache.ExistenceFilters;
+import com.example.app.config.AppConfig.AppProperties;
+import com.example.app.dto.BulkUpsertResult;
+import com.example.app.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import jakarta.validation.Validator;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ingestão em lote: IDs repetidos no lote e erros do bulk write mapeados para os itens do corpo
+ */
+class ProductIngestServiceTests {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final ExistenceFilters existenceFilters = mock(ExistenceFilters.class);
+    private final ProductIngestService service = new ProductIngestService();
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulk);
+        AuditorAware<String> auditorAware = () -> Optional.of("tester");
+
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(service, "validator", mock(Validator.class));
+        ReflectionTestUtils.setField(service, "auditorAware", auditorAware);
+        ReflectionTestUtils.setField(service, "cacheManager", mock(CacheManager.class));
+        ReflectionTestUtils.setField(service, "cacheBatchOperations", mock(CacheBatchOperations.class));
+        ReflectionTestUtils.setField(service, "cacheGenerations", mock(CacheGenerations.class));
+        ReflectionTestUtils.setField(service, "existenceFilters", existenceFilters);
+        ReflectionTestUtils.setField(service, "appProperties", new AppProperties());
+    }
+
+    @Test
+    void repeatedIdKeepsTheLastItemAndRejectsTheEarlierOne() throws Exception {
+        when(bulk.execute()).thenReturn(acknowledged(List.of()));
+
+        BulkUpsertResult result = service.upsertProducts(body(product("p1", "Mesa"), product("p1", "Cadeira")));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).upsert(any(Query.class), update.capture());
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("name", "Cadeira");
+        assertThat(result.getReceived()).isEqualTo(2);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getIndex()).isZero();
+            assertThat(error.getId()).isEqualTo("p1");
+            assertThat(error.getMessage()).contains("item 1");
+        });
+    }
+
+    @Test
+    void bulkErrorIndexesReferToTheDeduplicatedBatch() throws Exception {
+        // Após a deduplicação o lote fica [p2 (item 1), p1 (item 2), p3 (item 3)]
+        BulkWriteResult partial = acknowledged(List.of(new BulkWriteUpsert(2, new BsonString("p3"))));
+        BulkWriteError duplicateKey = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1);
+        when(bulk.execute()).thenThrow(new BulkOperationException("Falha parcial",
+                new MongoBulkWriteException(partial, List.of(duplicateKey), null, new ServerAddress(), Set.of())));
+
+        BulkUpsertResult result = service.upsertProducts(body(
+                product("p1", "Mesa"), product("p2", "Sofá"), product("p1", "Mesa nova"), product("p3", "Cama")));
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(bulk, times(3)).upsert(queries.capture(), any(Update.class));
+        assertThat(queries.getAllValues()).extracting(query -> query.getQueryObject().get("_id"))
+                .containsExactly("p2", "p1", "p3");
+
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors())
+                .extracting(BulkUpsertResult.ItemError::getIndex, BulkUpsertResult.ItemError::getId)
+                .containsExactly(tuple(0L, "p1"), tuple(2L, "p1"));
+        assertThat(result.getErrors().get(1).getMessage()).contains("E11000");
+        verify(existenceFilters).addProducts(List.of("p3"));
+    }
+
+    private static BulkWriteResult acknowledged(List<BulkWriteUpsert> upserts) {
+        return BulkWriteResult.acknowledged(0, 0, 0, 0, upserts, List.of());
+    }
+
+    private static String product(String id, String name) {
+        return """
+                {"id": "%s", "name": "%s", "price": 10.00, "category": "moveis"}""".formatted(id, name);
+    }
+
+    private static ByteArrayInputStream body(String... items) {
+        return new ByteArrayInputStream(("[" + String.join(",", items) + "]").getBytes(StandardCharsets.UTF_8));
+    }
+}
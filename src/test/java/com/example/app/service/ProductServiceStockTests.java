@@ -0,0 +1,104 @@
+package com.example.app.service;
+
+import com.example.app.cache.CacheBatchOperations;
+import com.example.app.cache.CacheGenerations;
+import com.example.app.config.AppConfig.AppProperties;
+import com.example.app.dto.StockAdjustment;
+import com.example.app.dto.StockAdjustmentResult;
+import com.example.app.entity.Product;
+import com.example.app.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ajuste de estoque em lote: soma dos deltas sem estouro e paralelismo limitado
+ */
+class ProductServiceStockTests {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final AppProperties appProperties = new AppProperties();
+    private final ProductService service = new ProductService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "productRepository", productRepository);
+        ReflectionTestUtils.setField(service, "cacheManager", mock(CacheManager.class));
+        ReflectionTestUtils.setField(service, "cacheBatchOperations", mock(CacheBatchOperations.class));
+        ReflectionTestUtils.setField(service, "cacheGenerations", mock(CacheGenerations.class));
+        ReflectionTestUtils.setField(service, "appProperties", appProperties);
+    }
+
+    @Test
+    void repeatedDeltasAreSummed() {
+        when(productRepository.adjustStock(eq("p1"), eq(5), eq(0), isNull())).thenReturn(product("p1", 15));
+
+        List<StockAdjustmentResult> results = service.adjustStocks(
+                List.of(new StockAdjustment("p1", 2), new StockAdjustment("p1", 3)), 0, null);
+
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.isApplied()).isTrue();
+            assertThat(result.getStock()).isEqualTo(15);
+        });
+    }
+
+    @Test
+    void overflowingSumIsReportedAsAnItemError() {
+        when(productRepository.adjustStock(eq("p2"), eq(1), eq(0), isNull())).thenReturn(product("p2", 1));
+
+        List<StockAdjustmentResult> results = service.adjustStocks(List.of(
+                new StockAdjustment("p1", Integer.MAX_VALUE),
+                new StockAdjustment("p1", 1),
+                new StockAdjustment("p2", 1)), 0, null);
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).isApplied()).isFalse();
+        assertThat(results.get(0).getError()).contains("fora do intervalo");
+        assertThat(results.get(1).isApplied()).isTrue();
+        verify(productRepository, never()).adjustStock(eq("p1"), anyInt(), any(), any());
+    }
+
+    @Test
+    void concurrentAdjustmentsAreBoundedByStockParallelism() {
+        appProperties.getBulk().setStockParallelism(3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(productRepository.adjustStock(anyString(), anyInt(), any(), any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            running.decrementAndGet();
+            return product(invocation.getArgument(0), 1);
+        });
+
+        List<StockAdjustment> adjustments = IntStream.range(0, 30)
+                .mapToObj(i -> new StockAdjustment("p" + i, 1))
+                .toList();
+        List<StockAdjustmentResult> results = service.adjustStocks(adjustments, 0, null);
+
+        assertThat(results).hasSize(30).allMatch(StockAdjustmentResult::isApplied);
+        assertThat(maxRunning.get()).isBetween(1, 3);
+    }
+
+    private static Product product(String id, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setStock(stock);
+        return product;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.app.service;
+
+import com.example.app.cache.ExistenceFilters;
+import com.example.app.cache.ReactiveCacheLookup;
+import com.example.app.config.AppConfig.AppProperties;
+import com.example.app.entity.Product;
+import com.example.app.entity.User;
+import com.example.app.repository.ReactiveProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Busca reativa por ID: IDs inexistentes respondidos pelo filtro sem Redis nem MongoDB
+ */
+class ReactiveProductServiceTests {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final ReactiveProductRepository productRepository = mock(ReactiveProductRepository.class);
+    private final ReactiveCacheLookup cacheLookup = mock(ReactiveCacheLookup.class);
+    private final ReactiveProductService service = new ReactiveProductService();
+
+    @BeforeEach
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        Product product = new Product();
+        product.setId("p1");
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenAnswer(invocation -> Stream.of(product));
+        when(mongoTemplate.stream(any(Query.class), eq(User.class))).thenAnswer(invocation -> Stream.empty());
+        ExistenceFilters existenceFilters =
+                new ExistenceFilters(mongoTemplate, redisTemplate, new AppProperties(), new SimpleMeterRegistry());
+        existenceFilters.rebuild();
+        clearInvocations(redisTemplate);
+
+        ReflectionTestUtils.setField(service, "existenceFilters", existenceFilters);
+        ReflectionTestUtils.setField(service, "cacheLookup", cacheLookup);
+        ReflectionTestUtils.setField(service, "productRepository", productRepository);
+    }
+
+    @Test
+    void unknownIdCompletesEmptyOnANonBlockingThreadWithoutRedis() {
+        Product found = Mono.defer(() -> service.findById("inexistente"))
+                .subscribeOn(Schedulers.parallel())
+                .block();
+
+        assertThat(found).isNull();
+        verifyNoInteractions(redisTemplate, cacheLookup, productRepository);
+    }
+
+    @Test
+    void knownIdGoesThroughTheCache() {
+        Product cached = new Product();
+        cached.setId("p1");
+        when(cacheLookup.get(eq("products"), eq("p1"), any())).thenReturn(Mono.just(cached));
+
+        assertThat(service.findById("p1").block()).isSameAs(cached);
+        verifyNoInteractions(redisTemplate);
+    }
+}